@@ -84,10 +84,10 @@ public class ComputeEngineContainerImplTest {
       .hasSize(
         CONTAINER_ITSELF
           + 75 // level 4
-          + 7 // content of CeModule
+          + 8 // content of CeModule
           + 7 // content of CeQueueModule
           + 4 // content of ReportProcessingModule
-          + 4 // content of CeTaskProcessorModule
+          + 5 // content of CeTaskProcessorModule
     );
     assertThat(picoContainer.getParent().getComponentAdapters()).hasSize(
       CONTAINER_ITSELF
@@ -60,6 +60,9 @@ import static org.sonar.process.ProcessCommands.MAX_PROCESSES;
  *   <li>Fourth byte will always contain {@link #EMPTY} unless process declares that it is operational by writing {@link #OPERATIONAL}.
  *       This does not imply that is done starting.</li>
  *   <li>The next 8 bytes contains a long (value of {@link System#currentTimeMillis()}) which represents the date of the last ping</li>
+ *   <li>The next {@link #SYSTEM_INFO_URL_SIZE_IN_BYTES} bytes contain the URL of the System Info server</li>
+ *   <li>The next 8 bytes contains a long which is incremented by any process each time tasks are submitted to the
+ *       current process. It is used by the Compute Engine to be notified of new tasks without polling its queue.</li>
  * </ul>
  * </p>
  */
@@ -72,8 +75,9 @@ public class AllProcessesCommands implements AutoCloseable {
   private static final int SYSTEM_INFO_URL_BYTE_OFFSET = PING_BYTE_OFFSET + 8;
 
   private static final int SYSTEM_INFO_URL_SIZE_IN_BYTES = 500;
+  private static final int TASKS_SUBMITTED_BYTE_OFFSET = SYSTEM_INFO_URL_BYTE_OFFSET + SYSTEM_INFO_URL_SIZE_IN_BYTES;
 
-  private static final int BYTE_LENGTH_FOR_ONE_PROCESS = 1 + 1 + 1 + 1 + 8 + SYSTEM_INFO_URL_SIZE_IN_BYTES;
+  private static final int BYTE_LENGTH_FOR_ONE_PROCESS = 1 + 1 + 1 + 1 + 8 + SYSTEM_INFO_URL_SIZE_IN_BYTES + 8;
 
   // With this shared memory we can handle up to MAX_PROCESSES processes
   private static final int MAX_SHARED_MEMORY = BYTE_LENGTH_FOR_ONE_PROCESS * MAX_PROCESSES;
@@ -161,6 +165,17 @@ public class AllProcessesCommands implements AutoCloseable {
     writeBytes(processNumber, SYSTEM_INFO_URL_BYTE_OFFSET, urlBytes);
   }
 
+  /**
+   * To be executed by any process to notify the specified process that tasks have been submitted to it
+   */
+  void notifyTasksSubmitted(int processNumber) {
+    writeLong(processNumber, TASKS_SUBMITTED_BYTE_OFFSET, readLong(processNumber, TASKS_SUBMITTED_BYTE_OFFSET) + 1);
+  }
+
+  long getTasksSubmittedVersion(int processNumber) {
+    return readLong(processNumber, TASKS_SUBMITTED_BYTE_OFFSET);
+  }
+
   /**
    * To be executed by monitor process to ask for child process termination
    */
@@ -286,6 +301,16 @@ public class AllProcessesCommands implements AutoCloseable {
       return AllProcessesCommands.this.getSystemInfoUrl(processNumber);
     }
 
+    @Override
+    public void notifyTasksSubmitted() {
+      AllProcessesCommands.this.notifyTasksSubmitted(processNumber);
+    }
+
+    @Override
+    public long getTasksSubmittedVersion() {
+      return AllProcessesCommands.this.getTasksSubmittedVersion(processNumber);
+    }
+
     @Override
     public void askForStop() {
       AllProcessesCommands.this.askForStop(processNumber);
@@ -101,6 +101,16 @@ public class DefaultProcessCommands implements ProcessCommands {
     return delegate.getSystemInfoUrl();
   }
 
+  @Override
+  public void notifyTasksSubmitted() {
+    delegate.notifyTasksSubmitted();
+  }
+
+  @Override
+  public long getTasksSubmittedVersion() {
+    return delegate.getTasksSubmittedVersion();
+  }
+
   @Override
   public void askForStop() {
     delegate.askForStop();
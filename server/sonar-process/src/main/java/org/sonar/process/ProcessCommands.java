@@ -59,6 +59,18 @@ public interface ProcessCommands extends AutoCloseable {
 
   String getSystemInfoUrl();
 
+  /**
+   * To be executed by any process which submits tasks to the current process, for instance when a report is added
+   * to the queue of the Compute Engine.
+   */
+  void notifyTasksSubmitted();
+
+  /**
+   * A value which changes each time {@link #notifyTasksSubmitted()} is called. Only changes of the value are
+   * meaningful, as concurrent notifications may be counted only once.
+   */
+  long getTasksSubmittedVersion();
+
   /**
    * To be executed by monitor process to ask for child process termination
    */
@@ -110,6 +110,23 @@ public class AllProcessesCommandsTest {
     assertThat(commands.getSystemInfoUrl(PROCESS_NUMBER)).isEqualTo("jmx:foo");
   }
 
+  @Test
+  public void notify_tasks_submitted() throws IOException {
+    File dir = temp.newFolder();
+    AllProcessesCommands commands = new AllProcessesCommands(dir);
+
+    int offset = 512;
+    assertThat(readLong(commands, offset)).isEqualTo(0L);
+    assertThat(commands.getTasksSubmittedVersion(PROCESS_NUMBER)).isEqualTo(0L);
+
+    try (AllProcessesCommands otherProcessCommands = new AllProcessesCommands(dir)) {
+      otherProcessCommands.notifyTasksSubmitted(PROCESS_NUMBER);
+      otherProcessCommands.notifyTasksSubmitted(PROCESS_NUMBER);
+    }
+    assertThat(commands.getTasksSubmittedVersion(PROCESS_NUMBER)).isEqualTo(2L);
+    assertThat(readLong(commands, offset)).isEqualTo(2L);
+  }
+
   @Test
   public void ask_for_stop() throws Exception {
     AllProcessesCommands commands = new AllProcessesCommands(temp.newFolder());
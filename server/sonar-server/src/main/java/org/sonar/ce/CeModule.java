@@ -21,6 +21,7 @@ package org.sonar.ce;
 
 import org.sonar.ce.log.CeLogging;
 import org.sonar.ce.queue.CeQueueImpl;
+import org.sonar.ce.queue.CeTasksSubmittedNotifier;
 import org.sonar.ce.queue.report.ReportFiles;
 import org.sonar.ce.queue.report.ReportSubmitter;
 import org.sonar.ce.taskprocessor.ReportTaskProcessorDeclaration;
@@ -33,6 +34,7 @@ public class CeModule extends Module {
 
       // Queue
       CeQueueImpl.class,
+      CeTasksSubmittedNotifier.class,
       ReportSubmitter.class,
       ReportFiles.class,
 
@@ -61,6 +61,26 @@ public interface CEQueueStatus {
    */
   long addError(long processingTime);
 
+  /**
+   * Adds the time a batch report waited for processing, from its submission to the start of its processing, to the
+   * waiting time histogram.
+   *
+   * @param waitingTime duration of waiting in ms
+   *
+   * @see #getWaitingTimeHistogram()
+   *
+   * @throws IllegalArgumentException if waitingTime is < 0
+   */
+  void addWaitingTime(long waitingTime);
+
+  /**
+   * Adds the count of batch reports still waiting for processing when a batch report is taken for processing to the
+   * queue depth histogram.
+   *
+   * @see #getQueueDepthHistogram()
+   */
+  void addQueueDepth(long pendingCount);
+
   /**
    * Count of batch reports waiting for processing since startup, including reports received before instance startup.
    */
@@ -85,4 +105,21 @@ public interface CEQueueStatus {
    * Time spent processing batch reports since startup, in milliseconds.
    */
   long getProcessingTime();
+
+  /**
+   * Time spent waiting for processing by the batch reports taken for processing since instance startup, in
+   * milliseconds.
+   */
+  Histogram getWaitingTimeHistogram();
+
+  /**
+   * Time spent processing batch reports since instance startup, in milliseconds.
+   */
+  Histogram getProcessingTimeHistogram();
+
+  /**
+   * Count of batch reports waiting for processing, sampled each time a batch report is taken for processing since
+   * instance startup.
+   */
+  Histogram getQueueDepthHistogram();
 }
@@ -0,0 +1,79 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2016 SonarSource SA
+ * mailto:contact AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.ce.monitoring;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Thread-safe count of values by range.
+ * <p>
+ * Range {@code i} counts the values lower than or equal to {@code upperBounds[i]} and greater than the previous
+ * bound. An additional last range counts the values greater than the highest bound.
+ */
+public class Histogram {
+
+  private final long[] upperBounds;
+  private final AtomicLongArray counts;
+
+  /**
+   * @throws IllegalArgumentException if upper bounds are empty or not in strictly ascending order
+   */
+  public Histogram(long... upperBounds) {
+    checkArgument(upperBounds.length > 0, "At least one upper bound is required");
+    for (int i = 1; i < upperBounds.length; i++) {
+      checkArgument(upperBounds[i - 1] < upperBounds[i], "Upper bounds must be in strictly ascending order");
+    }
+    this.upperBounds = upperBounds.clone();
+    this.counts = new AtomicLongArray(upperBounds.length + 1);
+  }
+
+  public void add(long value) {
+    int index = Arrays.binarySearch(upperBounds, value);
+    counts.incrementAndGet(index >= 0 ? index : (-index - 1));
+  }
+
+  public long[] getUpperBounds() {
+    return upperBounds.clone();
+  }
+
+  /**
+   * Counts by range, the last one being the count of values greater than the highest upper bound.
+   */
+  public long[] getCounts() {
+    long[] result = new long[counts.length()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = counts.get(i);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < upperBounds.length; i++) {
+      sb.append("<=").append(upperBounds[i]).append(": ").append(counts.get(i)).append(", ");
+    }
+    sb.append('>').append(upperBounds[upperBounds.length - 1]).append(": ").append(counts.get(upperBounds.length));
+    return sb.toString();
+  }
+}
@@ -48,6 +48,7 @@ public class CeQueueImpl implements CeQueue {
 
   private final DbClient dbClient;
   private final UuidFactory uuidFactory;
+  private final CeTasksSubmittedNotifier tasksSubmittedNotifier;
   private final CeQueueListener[] listeners;
 
   // state
@@ -56,13 +57,14 @@ public class CeQueueImpl implements CeQueue {
   /**
    * Constructor in case there is no CeQueueListener
    */
-  public CeQueueImpl(DbClient dbClient, UuidFactory uuidFactory) {
-    this(dbClient, uuidFactory, new CeQueueListener[] {});
+  public CeQueueImpl(DbClient dbClient, UuidFactory uuidFactory, CeTasksSubmittedNotifier tasksSubmittedNotifier) {
+    this(dbClient, uuidFactory, tasksSubmittedNotifier, new CeQueueListener[] {});
   }
 
-  public CeQueueImpl(DbClient dbClient, UuidFactory uuidFactory, CeQueueListener[] listeners) {
+  public CeQueueImpl(DbClient dbClient, UuidFactory uuidFactory, CeTasksSubmittedNotifier tasksSubmittedNotifier, CeQueueListener[] listeners) {
     this.dbClient = dbClient;
     this.uuidFactory = uuidFactory;
+    this.tasksSubmittedNotifier = tasksSubmittedNotifier;
     this.listeners = listeners;
   }
 
@@ -80,6 +82,7 @@ public class CeQueueImpl implements CeQueue {
       CeQueueDto dto = new CeTaskSubmitToInsertedCeQueueDto(dbSession, dbClient).apply(submission);
       CeTask task = loadTask(dbSession, dto);
       dbSession.commit();
+      tasksSubmittedNotifier.notifyTasksSubmitted();
       return task;
 
     } finally {
@@ -101,6 +104,7 @@ public class CeQueueImpl implements CeQueue {
         .toList();
       List<CeTask> tasks = loadTasks(dbSession, ceQueueDtos);
       dbSession.commit();
+      tasksSubmittedNotifier.notifyTasksSubmitted();
       return tasks;
 
     } finally {
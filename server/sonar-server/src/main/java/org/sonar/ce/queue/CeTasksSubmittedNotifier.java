@@ -0,0 +1,61 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2016 SonarSource SA
+ * mailto:contact AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.ce.queue;
+
+import java.io.File;
+import org.sonar.api.ce.ComputeEngineSide;
+import org.sonar.api.config.Settings;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.process.DefaultProcessCommands;
+import org.sonar.process.ProcessId;
+
+import static org.sonar.process.ProcessEntryPoint.PROPERTY_SHARED_PATH;
+
+/**
+ * Notifies the Compute Engine process, through the files shared by all processes, that tasks have been added to its
+ * queue, so that its workers do not have to wait for the next polling of the queue.
+ * <p>
+ * Notification is a best effort: queue is still polled regularly by workers, hence failures are only logged.
+ * </p>
+ */
+@ComputeEngineSide
+public class CeTasksSubmittedNotifier {
+  private static final Logger LOG = Loggers.get(CeTasksSubmittedNotifier.class);
+
+  private final Settings settings;
+
+  public CeTasksSubmittedNotifier(Settings settings) {
+    this.settings = settings;
+  }
+
+  public void notifyTasksSubmitted() {
+    String sharedPath = settings.getString(PROPERTY_SHARED_PATH);
+    if (sharedPath == null) {
+      // not started by the main process (tests, for example), there is no Compute Engine process to notify
+      return;
+    }
+    try (DefaultProcessCommands processCommands = DefaultProcessCommands.secondary(new File(sharedPath), ProcessId.COMPUTE_ENGINE.getIpcIndex())) {
+      processCommands.notifyTasksSubmitted();
+    } catch (RuntimeException e) {
+      LOG.warn("Failed to notify Compute Engine of submitted tasks", e);
+    }
+  }
+}
@@ -23,9 +23,10 @@ import com.google.common.base.Optional;
 import com.google.common.base.Throwables;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Parser;
+import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.NoSuchElementException;
@@ -170,7 +171,7 @@ public class BatchReportReaderImpl implements BatchReportReader {
     }
 
     try {
-      return new ParserCloseableIterator<>(ScannerReport.Test.parser(), FileUtils.openInputStream(file));
+      return new ParserCloseableIterator<>(ScannerReport.Test.parser(), openBufferedInputStream(file));
     } catch (IOException e) {
       Throwables.propagate(e);
       // actually never reached
@@ -186,7 +187,7 @@ public class BatchReportReaderImpl implements BatchReportReader {
     }
 
     try {
-      return new ParserCloseableIterator<>(ScannerReport.CoverageDetail.parser(), FileUtils.openInputStream(file));
+      return new ParserCloseableIterator<>(ScannerReport.CoverageDetail.parser(), openBufferedInputStream(file));
     } catch (IOException e) {
       Throwables.propagate(e);
       // actually never reached
@@ -194,19 +195,26 @@ public class BatchReportReaderImpl implements BatchReportReader {
     }
   }
 
+  /**
+   * Delimited messages are parsed byte per byte for their size, hence the stream must be buffered
+   */
+  private static InputStream openBufferedInputStream(File file) throws IOException {
+    return new BufferedInputStream(FileUtils.openInputStream(file));
+  }
+
   private static class ParserCloseableIterator<T> extends CloseableIterator<T> {
     private final Parser<T> parser;
-    private final FileInputStream fileInputStream;
+    private final InputStream inputStream;
 
-    public ParserCloseableIterator(Parser<T> parser, FileInputStream fileInputStream) {
+    public ParserCloseableIterator(Parser<T> parser, InputStream inputStream) {
       this.parser = parser;
-      this.fileInputStream = fileInputStream;
+      this.inputStream = inputStream;
     }
 
     @Override
     protected T doNext() {
       try {
-        return parser.parseDelimitedFrom(fileInputStream);
+        return parser.parseDelimitedFrom(inputStream);
       } catch (InvalidProtocolBufferException e) {
         Throwables.propagate(e);
         // actually never reached
@@ -216,7 +224,7 @@ public class BatchReportReaderImpl implements BatchReportReader {
 
     @Override
     protected void doClose() throws Exception {
-      fileInputStream.close();
+      inputStream.close();
     }
   }
 }
@@ -23,8 +23,10 @@ import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.sonar.api.utils.log.Loggers;
@@ -42,14 +44,29 @@ public class VisitorsCrawler implements ComponentCrawler {
   private final Map<ComponentVisitor, VisitorDuration> visitorCumulativeDurations;
   private final List<VisitorWrapper> preOrderVisitorWrappers;
   private final List<VisitorWrapper> postOrderVisitorWrappers;
+  /**
+   * Visitors to execute for each type of component, computed once instead of being filtered again for each component
+   */
+  private final Map<Component.Type, List<VisitorWrapper>> preOrderVisitorWrappersByType;
+  private final Map<Component.Type, List<VisitorWrapper>> postOrderVisitorWrappersByType;
 
   public VisitorsCrawler(Iterable<ComponentVisitor> visitors) {
     List<VisitorWrapper> visitorWrappers = from(visitors).transform(ToVisitorWrapper.INSTANCE).toList();
     this.preOrderVisitorWrappers = from(visitorWrappers).filter(MathPreOrderVisitor.INSTANCE).toList();
     this.postOrderVisitorWrappers = from(visitorWrappers).filter(MatchPostOrderVisitor.INSTANCE).toList();
+    this.preOrderVisitorWrappersByType = byComponentType(preOrderVisitorWrappers);
+    this.postOrderVisitorWrappersByType = byComponentType(postOrderVisitorWrappers);
     this.visitorCumulativeDurations = from(visitors).toMap(VisitorWrapperToInitialDuration.INSTANCE);
   }
 
+  private static Map<Component.Type, List<VisitorWrapper>> byComponentType(List<VisitorWrapper> visitorWrappers) {
+    Map<Component.Type, List<VisitorWrapper>> res = new EnumMap<>(Component.Type.class);
+    for (Component.Type type : Component.Type.values()) {
+      res.put(type, from(visitorWrappers).filter(MatchVisitorMaxDepth.forType(type)).toList());
+    }
+    return res;
+  }
+
   public Map<ComponentVisitor, Long> getCumulativeDurations() {
     return ImmutableMap.copyOf(
       Maps.transformValues(this.visitorCumulativeDurations, VisitorDurationToDuration.INSTANCE)
@@ -69,9 +86,8 @@ public class VisitorsCrawler implements ComponentCrawler {
   }
 
   private void visitImpl(Component component) {
-    MatchVisitorMaxDepth visitorMaxDepth = MatchVisitorMaxDepth.forComponent(component);
-    List<VisitorWrapper> preOrderVisitorWrappersToExecute = from(preOrderVisitorWrappers).filter(visitorMaxDepth).toList();
-    List<VisitorWrapper> postOrderVisitorWrappersToExecute = from(postOrderVisitorWrappers).filter(visitorMaxDepth).toList();
+    List<VisitorWrapper> preOrderVisitorWrappersToExecute = preOrderVisitorWrappersByType.get(component.getType());
+    List<VisitorWrapper> postOrderVisitorWrappersToExecute = postOrderVisitorWrappersByType.get(component.getType());
     if (preOrderVisitorWrappersToExecute.isEmpty() && postOrderVisitorWrappersToExecute.isEmpty()) {
       return;
     }
@@ -102,8 +118,9 @@ public class VisitorsCrawler implements ComponentCrawler {
   }
 
   private void visitNode(Component component, VisitorWrapper visitor) {
-    Profiler profiler = Profiler.create(Loggers.get(visitor.getWrappedVisitor().getClass()))
-      .startTrace("Visiting component {}", component.getKey());
+    VisitorDuration visitorDuration = visitorCumulativeDurations.get(visitor.getWrappedVisitor());
+    Profiler profiler = visitorDuration.getProfiler().startTrace("Visiting component {}", component.getKey());
+    long start = System.nanoTime();
     visitor.visitAny(component);
     switch (component.getType()) {
       case PROJECT:
@@ -130,12 +147,9 @@ public class VisitorsCrawler implements ComponentCrawler {
       default:
         throw new IllegalStateException(String.format("Unknown type %s", component.getType().name()));
     }
-    long duration = profiler.stopTrace();
-    incrementDuration(visitor, duration);
-  }
-
-  private void incrementDuration(VisitorWrapper visitorWrapper, long duration) {
-    visitorCumulativeDurations.get(visitorWrapper.getWrappedVisitor()).increment(duration);
+    // duration is measured in nanoseconds, visit of a single file usually takes less than one millisecond
+    visitorDuration.increment(System.nanoTime() - start);
+    profiler.stopTrace();
   }
 
   private enum ToVisitorWrapper implements Function<ComponentVisitor, VisitorWrapper> {
@@ -170,8 +184,8 @@ public class VisitorsCrawler implements ComponentCrawler {
       this.type = requireNonNull(type);
     }
 
-    public static MatchVisitorMaxDepth forComponent(Component component) {
-      return INSTANCES.get(component.getType());
+    public static MatchVisitorMaxDepth forType(Component.Type type) {
+      return INSTANCES.get(type);
     }
 
     @Override
@@ -200,14 +214,23 @@ public class VisitorsCrawler implements ComponentCrawler {
   }
 
   private static final class VisitorDuration {
-    private long duration = 0;
+    private final Profiler profiler;
+    private long durationInNanos = 0;
+
+    private VisitorDuration(Profiler profiler) {
+      this.profiler = profiler;
+    }
+
+    public Profiler getProfiler() {
+      return profiler;
+    }
 
-    public void increment(long duration) {
-      this.duration += duration;
+    public void increment(long durationInNanos) {
+      this.durationInNanos += durationInNanos;
     }
 
     public long getDuration() {
-      return duration;
+      return TimeUnit.NANOSECONDS.toMillis(durationInNanos);
     }
   }
 
@@ -216,8 +239,8 @@ public class VisitorsCrawler implements ComponentCrawler {
 
     @Override
     @Nonnull
-    public VisitorDuration apply(@Nonnull ComponentVisitor visitorWrapper) {
-      return new VisitorDuration();
+    public VisitorDuration apply(@Nonnull ComponentVisitor visitor) {
+      return new VisitorDuration(Profiler.create(Loggers.get(visitor.getClass())));
     }
   }
 
@@ -43,6 +43,7 @@ import org.sonar.server.computation.filemove.MutableMovedFilesRepositoryImpl;
 import org.sonar.server.computation.filemove.SourceSimilarityImpl;
 import org.sonar.server.computation.filesystem.ComputationTempFolderProvider;
 import org.sonar.server.computation.issue.BaseIssuesLoader;
+import org.sonar.server.computation.issue.ChangedIssueKeysImpl;
 import org.sonar.server.computation.issue.CloseIssuesOnRemovedComponentsVisitor;
 import org.sonar.server.computation.issue.ComponentIssuesRepositoryImpl;
 import org.sonar.server.computation.issue.ComponentsWithUnprocessedIssues;
@@ -174,6 +175,7 @@ public final class ReportComputeEngineContainerPopulator implements ContainerPop
       ScmAccountToUserLoader.class,
       ScmAccountToUser.class,
       IssueCache.class,
+      ChangedIssueKeysImpl.class,
       DefaultAssignee.class,
       IssueVisitors.class,
       IssueLifecycle.class,
@@ -31,6 +31,7 @@ import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.sonar.server.computation.component.Component;
+import org.sonar.server.computation.component.Developer;
 import org.sonar.server.computation.metric.Metric;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -46,6 +47,11 @@ import static java.util.Objects.requireNonNull;
 public final class MapBasedRawMeasureRepository<T> implements MeasureRepository {
   private final Function<Component, T> componentToKey;
   private final Map<T, Map<MeasureKey, Measure>> measures = new HashMap<>();
+  /**
+   * MeasureKeys without developer are shared by all components, instead of creating a new one for each measure and
+   * each lookup.
+   */
+  private final Map<String, MeasureKey> measureKeysWithoutDeveloper = new HashMap<>();
 
   public MapBasedRawMeasureRepository(Function<Component, T> componentToKey) {
     this.componentToKey = requireNonNull(componentToKey);
@@ -141,7 +147,7 @@ public final class MapBasedRawMeasureRepository<T> implements MeasureRepository
     if (measuresPerMetric == null) {
       return Optional.absent();
     }
-    return Optional.fromNullable(measuresPerMetric.get(new MeasureKey(metric.getKey(), null)));
+    return Optional.fromNullable(measuresPerMetric.get(measureKey(metric.getKey(), null)));
   }
 
   private Optional<Measure> find(Component component, Metric metric, Measure measure) {
@@ -150,7 +156,7 @@ public final class MapBasedRawMeasureRepository<T> implements MeasureRepository
     if (measuresPerMetric == null) {
       return Optional.absent();
     }
-    return Optional.fromNullable(measuresPerMetric.get(new MeasureKey(metric.getKey(), measure.getDeveloper())));
+    return Optional.fromNullable(measuresPerMetric.get(measureKey(metric.getKey(), measure.getDeveloper())));
   }
 
   public void add(Component component, Metric metric, Measure measure, OverridePolicy overridePolicy) {
@@ -165,12 +171,24 @@ public final class MapBasedRawMeasureRepository<T> implements MeasureRepository
       measuresPerMetric = new HashMap<>();
       measures.put(componentKey, measuresPerMetric);
     }
-    MeasureKey key = new MeasureKey(metric.getKey(), measure.getDeveloper());
+    MeasureKey key = measureKey(metric.getKey(), measure.getDeveloper());
     if (!measuresPerMetric.containsKey(key) || overridePolicy == OverridePolicy.OVERRIDE) {
       measuresPerMetric.put(key, measure);
     }
   }
 
+  private MeasureKey measureKey(String metricKey, @Nullable Developer developer) {
+    if (developer != null) {
+      return new MeasureKey(metricKey, developer);
+    }
+    MeasureKey res = measureKeysWithoutDeveloper.get(metricKey);
+    if (res == null) {
+      res = new MeasureKey(metricKey, null);
+      measureKeysWithoutDeveloper.put(metricKey, res);
+    }
+    return res;
+  }
+
   public enum OverridePolicy {
     OVERRIDE, DO_NOT_OVERRIDE
   }
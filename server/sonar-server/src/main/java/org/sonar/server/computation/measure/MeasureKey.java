@@ -19,7 +19,6 @@
  */
 package org.sonar.server.computation.measure;
 
-import java.util.Objects;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
@@ -63,7 +62,8 @@ public final class MeasureKey {
 
   @Override
   public int hashCode() {
-    return Objects.hash(metricKey);
+    // not using Objects.hash(Object...) which allocates an array on each call
+    return metricKey.hashCode();
   }
 
   @Override
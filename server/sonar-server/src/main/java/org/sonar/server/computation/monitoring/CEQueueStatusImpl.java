@@ -21,6 +21,7 @@ package org.sonar.server.computation.monitoring;
 
 import java.util.concurrent.atomic.AtomicLong;
 import org.sonar.ce.monitoring.CEQueueStatus;
+import org.sonar.ce.monitoring.Histogram;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
 import org.sonar.db.ce.CeQueueDto;
@@ -29,11 +30,17 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 public class CEQueueStatusImpl implements CEQueueStatus {
 
+  private static final long[] TIME_UPPER_BOUNDS_IN_MS = {1_000L, 10_000L, 60_000L, 600_000L, 3_600_000L};
+  private static final long[] QUEUE_DEPTH_UPPER_BOUNDS = {0L, 1L, 10L, 100L, 1_000L};
+
   private final DbClient dbClient;
   private final AtomicLong inProgress = new AtomicLong(0);
   private final AtomicLong error = new AtomicLong(0);
   private final AtomicLong success = new AtomicLong(0);
   private final AtomicLong processingTime = new AtomicLong(0);
+  private final Histogram waitingTimeHistogram = new Histogram(TIME_UPPER_BOUNDS_IN_MS);
+  private final Histogram processingTimeHistogram = new Histogram(TIME_UPPER_BOUNDS_IN_MS);
+  private final Histogram queueDepthHistogram = new Histogram(QUEUE_DEPTH_UPPER_BOUNDS);
 
   public CEQueueStatusImpl(DbClient dbClient) {
     this.dbClient = dbClient;
@@ -61,6 +68,18 @@ public class CEQueueStatusImpl implements CEQueueStatus {
   private void addProcessingTime(long ms) {
     checkArgument(ms >= 0, "Processing time can not be < 0");
     processingTime.addAndGet(ms);
+    processingTimeHistogram.add(ms);
+  }
+
+  @Override
+  public void addWaitingTime(long waitingTimeInMs) {
+    checkArgument(waitingTimeInMs >= 0, "Waiting time can not be < 0");
+    waitingTimeHistogram.add(waitingTimeInMs);
+  }
+
+  @Override
+  public void addQueueDepth(long pendingCount) {
+    queueDepthHistogram.add(pendingCount);
   }
 
   @Override
@@ -89,4 +108,19 @@ public class CEQueueStatusImpl implements CEQueueStatus {
   public long getProcessingTime() {
     return processingTime.get();
   }
+
+  @Override
+  public Histogram getWaitingTimeHistogram() {
+    return waitingTimeHistogram;
+  }
+
+  @Override
+  public Histogram getProcessingTimeHistogram() {
+    return processingTimeHistogram;
+  }
+
+  @Override
+  public Histogram getQueueDepthHistogram() {
+    return queueDepthHistogram;
+  }
 }
@@ -48,6 +48,23 @@ public interface CeTasksMBean {
    */
   long getProcessingTime();
 
+  /**
+   * Count of reports taken for processing since startup by time spent waiting in queue: up to 1s, 10s, 1min, 10min,
+   * 1h and more than 1h.
+   */
+  long[] getWaitingTimeHistogram();
+
+  /**
+   * Count of reports processed since startup by processing time: up to 1s, 10s, 1min, 10min, 1h and more than 1h.
+   */
+  long[] getProcessingTimeHistogram();
+
+  /**
+   * Count of reports waiting for processing, sampled each time a report is taken for processing since startup:
+   * 0, 1, up to 10, 100, 1000 and more than 1000.
+   */
+  long[] getQueueDepthHistogram();
+
   /**
    * Configured number of Workers.
    */
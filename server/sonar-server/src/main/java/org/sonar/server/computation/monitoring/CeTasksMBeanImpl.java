@@ -73,6 +73,21 @@ public class CeTasksMBeanImpl implements CeTasksMBean, Startable, SystemInfoSect
     return queueStatus.getProcessingTime();
   }
 
+  @Override
+  public long[] getWaitingTimeHistogram() {
+    return queueStatus.getWaitingTimeHistogram().getCounts();
+  }
+
+  @Override
+  public long[] getProcessingTimeHistogram() {
+    return queueStatus.getProcessingTimeHistogram().getCounts();
+  }
+
+  @Override
+  public long[] getQueueDepthHistogram() {
+    return queueStatus.getQueueDepthHistogram().getCounts();
+  }
+
   @Override
   public int getWorkerCount() {
     return ceConfiguration.getWorkerCount();
@@ -87,6 +102,9 @@ public class CeTasksMBeanImpl implements CeTasksMBean, Startable, SystemInfoSect
     builder.addAttributesBuilder().setKey("Processed With Error").setLongValue(getErrorCount()).build();
     builder.addAttributesBuilder().setKey("Processed With Success").setLongValue(getSuccessCount()).build();
     builder.addAttributesBuilder().setKey("Processing Time (ms)").setLongValue(getProcessingTime()).build();
+    builder.addAttributesBuilder().setKey("Waiting Time Histogram (ms)").setStringValue(queueStatus.getWaitingTimeHistogram().toString()).build();
+    builder.addAttributesBuilder().setKey("Processing Time Histogram (ms)").setStringValue(queueStatus.getProcessingTimeHistogram().toString()).build();
+    builder.addAttributesBuilder().setKey("Queue Depth Histogram").setStringValue(queueStatus.getQueueDepthHistogram().toString()).build();
     builder.addAttributesBuilder().setKey("Worker Count").setLongValue(getWorkerCount()).build();
     return builder.build();
   }
@@ -29,6 +29,7 @@ import org.sonar.ce.queue.CeQueueImpl;
 import org.sonar.ce.queue.CeQueueListener;
 import org.sonar.ce.queue.CeTask;
 import org.sonar.ce.queue.CeTaskResult;
+import org.sonar.ce.queue.CeTasksSubmittedNotifier;
 import org.sonar.core.util.UuidFactory;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
@@ -47,9 +48,9 @@ public class InternalCeQueueImpl extends CeQueueImpl implements InternalCeQueue
   // state
   private AtomicBoolean peekPaused = new AtomicBoolean(false);
 
-  public InternalCeQueueImpl(System2 system2, DbClient dbClient, UuidFactory uuidFactory,
+  public InternalCeQueueImpl(System2 system2, DbClient dbClient, UuidFactory uuidFactory, CeTasksSubmittedNotifier tasksSubmittedNotifier,
     CEQueueStatus queueStatus, CeQueueListener[] listeners) {
-    super(dbClient, uuidFactory, listeners);
+    super(dbClient, uuidFactory, tasksSubmittedNotifier, listeners);
     this.system2 = system2;
     this.dbClient = dbClient;
     this.queueStatus = queueStatus;
@@ -67,6 +68,7 @@ public class InternalCeQueueImpl extends CeQueueImpl implements InternalCeQueue
       if (dto.isPresent()) {
         task = loadTask(dbSession, dto.get());
         queueStatus.addInProgress();
+        updateQueueStatus(dbSession, dto.get());
       }
       return Optional.fromNullable(task);
 
@@ -75,6 +77,14 @@ public class InternalCeQueueImpl extends CeQueueImpl implements InternalCeQueue
     }
   }
 
+  private void updateQueueStatus(DbSession dbSession, CeQueueDto peekedDto) {
+    Long startedAt = peekedDto.getStartedAt();
+    if (startedAt != null) {
+      queueStatus.addWaitingTime(Math.max(0L, startedAt - peekedDto.getCreatedAt()));
+    }
+    queueStatus.addQueueDepth(dbClient.ceQueueDao().countByStatus(dbSession, CeQueueDto.Status.PENDING));
+  }
+
   @Override
   public int clear() {
     return cancelAll(true);
@@ -19,22 +19,22 @@
  */
 package org.sonar.server.computation.step;
 
-import org.sonar.server.computation.component.TreeRootHolder;
+import org.sonar.server.computation.issue.ChangedIssueKeys;
 import org.sonar.server.issue.index.IssueIndexer;
 
 public class IndexIssuesStep implements ComputationStep {
 
   private final IssueIndexer indexer;
-  private final TreeRootHolder treeRootHolder;
+  private final ChangedIssueKeys changedIssueKeys;
 
-  public IndexIssuesStep(IssueIndexer indexer, TreeRootHolder treeRootHolder) {
+  public IndexIssuesStep(IssueIndexer indexer, ChangedIssueKeys changedIssueKeys) {
     this.indexer = indexer;
-    this.treeRootHolder = treeRootHolder;
+    this.changedIssueKeys = changedIssueKeys;
   }
 
   @Override
   public void execute() {
-    indexer.index(treeRootHolder.getRoot().getUuid());
+    indexer.index(changedIssueKeys.getKeys());
   }
 
   @Override
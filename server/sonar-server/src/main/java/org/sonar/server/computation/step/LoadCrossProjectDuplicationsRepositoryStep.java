@@ -20,8 +20,15 @@
 package org.sonar.server.computation.step;
 
 import com.google.common.base.Function;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.annotation.Nonnull;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
@@ -44,6 +51,7 @@ import org.sonar.server.computation.snapshot.Snapshot;
 
 import static com.google.common.collect.FluentIterable.from;
 import static com.google.common.collect.Lists.newArrayList;
+import static org.sonar.db.DatabaseUtils.PARTITION_SIZE_FOR_ORACLE;
 import static org.sonar.server.computation.component.ComponentVisitor.Order.PRE_ORDER;
 
 /**
@@ -52,6 +60,9 @@ import static org.sonar.server.computation.component.ComponentVisitor.Order.PRE_
  * Blocks can be empty if :
  * - The file is excluded from the analysis using {@link org.sonar.api.CoreProperties#CPD_EXCLUSIONS}
  * - On Java, if the number of statements of the file is too small, nothing will be sent.
+ *
+ * In order to limit the number of SQL requests, candidate blocks are loaded for several files of the same language
+ * at once.
  */
 public class LoadCrossProjectDuplicationsRepositoryStep implements ComputationStep {
 
@@ -78,7 +89,14 @@ public class LoadCrossProjectDuplicationsRepositoryStep implements ComputationSt
   @Override
   public void execute() {
     if (crossProjectDuplicationStatusHolder.isEnabled()) {
-      new DepthTraversalTypeAwareCrawler(new CrossProjectDuplicationVisitor()).visit(treeRootHolder.getRoot());
+      DbSession dbSession = dbClient.openSession(false);
+      try {
+        CrossProjectDuplicationVisitor visitor = new CrossProjectDuplicationVisitor(dbSession);
+        new DepthTraversalTypeAwareCrawler(visitor).visit(treeRootHolder.getRoot());
+        visitor.computeRemainingBatches();
+      } finally {
+        dbClient.closeSession(dbSession);
+      }
     }
   }
 
@@ -89,8 +107,12 @@ public class LoadCrossProjectDuplicationsRepositoryStep implements ComputationSt
 
   private class CrossProjectDuplicationVisitor extends TypeAwareVisitorAdapter {
 
-    private CrossProjectDuplicationVisitor() {
+    private final DbSession dbSession;
+    private final Map<String, FileBatch> batchesByLanguage = new HashMap<>();
+
+    private CrossProjectDuplicationVisitor(DbSession dbSession) {
       super(CrawlerDepthLimit.FILE, PRE_ORDER);
+      this.dbSession = dbSession;
     }
 
     @Override
@@ -101,8 +123,41 @@ public class LoadCrossProjectDuplicationsRepositoryStep implements ComputationSt
         return;
       }
 
-      Collection<String> hashes = from(cpdTextBlocks).transform(CpdTextBlockToHash.INSTANCE).toList();
-      List<DuplicationUnitDto> dtos = selectDuplicates(file, hashes);
+      String language = file.getFileAttributes().getLanguageKey();
+      FileBatch batch = batchesByLanguage.get(language);
+      if (batch == null) {
+        batch = new FileBatch(language);
+        batchesByLanguage.put(language, batch);
+      }
+      batch.add(file, cpdTextBlocks);
+      if (batch.hashes.size() >= PARTITION_SIZE_FOR_ORACLE) {
+        computeCpd(batch);
+        batchesByLanguage.remove(language);
+      }
+    }
+
+    private void computeRemainingBatches() {
+      for (FileBatch batch : batchesByLanguage.values()) {
+        computeCpd(batch);
+      }
+      batchesByLanguage.clear();
+    }
+
+    private void computeCpd(FileBatch batch) {
+      ListMultimap<String, DuplicationUnitDto> dtosByHash = selectDuplicatesByHash(batch.language, batch.hashes);
+      if (dtosByHash.isEmpty()) {
+        return;
+      }
+      for (int i = 0; i < batch.files.size(); i++) {
+        computeCpd(batch.files.get(i), batch.cpdTextBlocks.get(i), dtosByHash);
+      }
+    }
+
+    private void computeCpd(Component file, List<CpdTextBlock> cpdTextBlocks, ListMultimap<String, DuplicationUnitDto> dtosByHash) {
+      List<DuplicationUnitDto> dtos = new ArrayList<>();
+      for (String hash : from(cpdTextBlocks).transform(CpdTextBlockToHash.INSTANCE).toSet()) {
+        dtos.addAll(dtosByHash.get(hash));
+      }
       if (dtos.isEmpty()) {
         return;
       }
@@ -114,14 +169,35 @@ public class LoadCrossProjectDuplicationsRepositoryStep implements ComputationSt
       integrateCrossProjectDuplications.computeCpd(file, originBlocks, duplicatedBlocks);
     }
 
-    private List<DuplicationUnitDto> selectDuplicates(Component file, Collection<String> hashes) {
-      DbSession dbSession = dbClient.openSession(false);
-      try {
-        Snapshot projectSnapshot = analysisMetadataHolder.getBaseProjectSnapshot();
-        String analysisUuid = projectSnapshot == null ? null : projectSnapshot.getUuid();
-        return dbClient.duplicationDao().selectCandidates(dbSession, analysisUuid, file.getFileAttributes().getLanguageKey(), hashes);
-      } finally {
-        dbClient.closeSession(dbSession);
+    private ListMultimap<String, DuplicationUnitDto> selectDuplicatesByHash(String language, Collection<String> hashes) {
+      Snapshot projectSnapshot = analysisMetadataHolder.getBaseProjectSnapshot();
+      String analysisUuid = projectSnapshot == null ? null : projectSnapshot.getUuid();
+      ListMultimap<String, DuplicationUnitDto> dtosByHash = ArrayListMultimap.create();
+      for (DuplicationUnitDto dto : dbClient.duplicationDao().selectCandidates(dbSession, analysisUuid, language, hashes)) {
+        dtosByHash.put(dto.getHash(), dto);
+      }
+      return dtosByHash;
+    }
+  }
+
+  /**
+   * Files of the same language, whose candidate blocks are loaded with the same SQL requests
+   */
+  private static class FileBatch {
+    private final String language;
+    private final List<Component> files = new ArrayList<>();
+    private final List<List<CpdTextBlock>> cpdTextBlocks = new ArrayList<>();
+    private final Set<String> hashes = new LinkedHashSet<>();
+
+    private FileBatch(String language) {
+      this.language = language;
+    }
+
+    private void add(Component file, List<CpdTextBlock> fileCpdTextBlocks) {
+      files.add(file);
+      cpdTextBlocks.add(fileCpdTextBlocks);
+      for (CpdTextBlock cpdTextBlock : fileCpdTextBlocks) {
+        hashes.add(cpdTextBlock.getHash());
       }
     }
   }
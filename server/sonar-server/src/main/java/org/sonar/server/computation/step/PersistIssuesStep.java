@@ -32,6 +32,7 @@ import org.sonar.server.computation.issue.UpdateConflictResolver;
 import org.sonar.db.DbSession;
 import org.sonar.db.MyBatis;
 import org.sonar.server.computation.issue.IssueCache;
+import org.sonar.server.computation.issue.MutableChangedIssueKeys;
 import org.sonar.server.computation.issue.RuleRepository;
 import org.sonar.db.DbClient;
 import org.sonar.core.util.CloseableIterator;
@@ -43,14 +44,16 @@ public class PersistIssuesStep implements ComputationStep {
   private final UpdateConflictResolver conflictResolver;
   private final RuleRepository ruleRepository;
   private final IssueCache issueCache;
+  private final MutableChangedIssueKeys changedIssueKeys;
 
   public PersistIssuesStep(DbClient dbClient, System2 system2, UpdateConflictResolver conflictResolver,
-    RuleRepository ruleRepository, IssueCache issueCache) {
+    RuleRepository ruleRepository, IssueCache issueCache, MutableChangedIssueKeys changedIssueKeys) {
     this.dbClient = dbClient;
     this.system2 = system2;
     this.conflictResolver = conflictResolver;
     this.ruleRepository = ruleRepository;
     this.issueCache = issueCache;
+    this.changedIssueKeys = changedIssueKeys;
   }
 
   @Override
@@ -81,6 +84,7 @@ public class PersistIssuesStep implements ComputationStep {
         }
         if (saved) {
           insertChanges(changeMapper, issue);
+          changedIssueKeys.add(issue.key());
         }
       }
       session.flushStatements();
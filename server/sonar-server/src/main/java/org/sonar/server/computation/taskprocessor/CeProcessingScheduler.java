@@ -23,4 +23,10 @@ public interface CeProcessingScheduler {
 
   void startScheduling();
 
+  /**
+   * Makes workers waiting for the next polling of the queue poll it immediately, typically because new tasks
+   * have been submitted.
+   */
+  void wakeUp();
+
 }
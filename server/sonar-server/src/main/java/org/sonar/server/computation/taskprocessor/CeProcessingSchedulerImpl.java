@@ -23,6 +23,7 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListenableScheduledFuture;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.CheckForNull;
@@ -32,7 +33,6 @@ import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.server.computation.configuration.CeConfiguration;
 
-import static com.google.common.util.concurrent.Futures.addCallback;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class CeProcessingSchedulerImpl implements CeProcessingScheduler, Startable {
@@ -68,8 +68,14 @@ public class CeProcessingSchedulerImpl implements CeProcessingScheduler, Startab
   @Override
   public void startScheduling() {
     for (ChainingCallback chainingCallback : chainingCallbacks) {
-      ListenableScheduledFuture<Boolean> future = executorService.schedule(workerRunnable, delayBetweenTasks, timeUnit);
-      addCallback(future, chainingCallback, executorService);
+      chainingCallback.chainWithDelay();
+    }
+  }
+
+  @Override
+  public void wakeUp() {
+    for (ChainingCallback chainingCallback : chainingCallbacks) {
+      chainingCallback.wakeUp();
     }
   }
 
@@ -82,8 +88,12 @@ public class CeProcessingSchedulerImpl implements CeProcessingScheduler, Startab
 
   private class ChainingCallback implements FutureCallback<Boolean> {
     private final AtomicBoolean keepRunning = new AtomicBoolean(true);
+    // true from the time next polling is delayed until it is triggered, either by the end of the delay or by a wake up
+    private final AtomicBoolean waitingForPolling = new AtomicBoolean(false);
+    @CheckForNull
+    private volatile ListenableFuture<Boolean> workerFuture;
     @CheckForNull
-    private ListenableFuture<Boolean> workerFuture;
+    private volatile ListenableScheduledFuture<?> delayedPollingFuture;
 
     @Override
     public void onSuccess(@Nullable Boolean result) {
@@ -110,16 +120,44 @@ public class CeProcessingSchedulerImpl implements CeProcessingScheduler, Startab
       addCallback();
     }
 
+    /**
+     * Delays the next polling of the queue, which can be triggered earlier by {@link #wakeUp()}.
+     */
     private void chainWithDelay() {
       if (keepRunning()) {
-        workerFuture = executorService.schedule(workerRunnable, delayBetweenTasks, timeUnit);
+        waitingForPolling.set(true);
+        delayedPollingFuture = executorService.schedule(new Runnable() {
+          @Override
+          public void run() {
+            pollIfWaiting();
+          }
+        }, delayBetweenTasks, timeUnit);
       }
-      addCallback();
+    }
+
+    private void wakeUp() {
+      ListenableScheduledFuture<?> future = delayedPollingFuture;
+      if (pollIfWaiting() && future != null) {
+        future.cancel(false);
+      }
+    }
+
+    /**
+     * Polls the queue unless it has already been done since the last call to {@link #chainWithDelay()}, so that
+     * a wake up and the end of the delay do not trigger two pollings.
+     */
+    private boolean pollIfWaiting() {
+      if (waitingForPolling.compareAndSet(true, false)) {
+        chainWithoutDelay();
+        return true;
+      }
+      return false;
     }
 
     private void addCallback() {
-      if (workerFuture != null && keepRunning()) {
-        Futures.addCallback(workerFuture, this, executorService);
+      ListenableFuture<Boolean> future = workerFuture;
+      if (future != null && keepRunning()) {
+        Futures.addCallback(future, this, executorService);
       }
     }
 
@@ -129,8 +167,13 @@ public class CeProcessingSchedulerImpl implements CeProcessingScheduler, Startab
 
     public void stop() {
       this.keepRunning.set(false);
-      if (workerFuture != null) {
-        workerFuture.cancel(false);
+      cancel(workerFuture);
+      cancel(delayedPollingFuture);
+    }
+
+    private void cancel(@Nullable Future<?> future) {
+      if (future != null) {
+        future.cancel(false);
       }
     }
   }
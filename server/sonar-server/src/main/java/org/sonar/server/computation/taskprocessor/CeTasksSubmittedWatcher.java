@@ -0,0 +1,115 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2016 SonarSource SA
+ * mailto:contact AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.taskprocessor;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.File;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.CheckForNull;
+import org.picocontainer.Startable;
+import org.sonar.api.config.Settings;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.ce.queue.CeTasksSubmittedNotifier;
+import org.sonar.process.DefaultProcessCommands;
+import org.sonar.process.ProcessId;
+
+import static org.sonar.process.ProcessEntryPoint.PROPERTY_SHARED_PATH;
+
+/**
+ * Watches the notifications sent by {@link CeTasksSubmittedNotifier} through the files shared by all processes and
+ * wakes up the workers of {@link CeProcessingScheduler} as soon as tasks are submitted. Reading the shared memory is
+ * cheap, contrary to polling table CE_QUEUE.
+ */
+public class CeTasksSubmittedWatcher implements Startable {
+  private static final Logger LOG = Loggers.get(CeTasksSubmittedWatcher.class);
+  private static final long WATCH_DELAY_IN_MS = 100L;
+
+  private final Settings settings;
+  private final CeProcessingScheduler processingScheduler;
+
+  @CheckForNull
+  private DefaultProcessCommands processCommands;
+  @CheckForNull
+  private ScheduledExecutorService executorService;
+  /**
+   * Only read and written by the single thread of {@link #executorService}, once initialized by {@link #start()}
+   */
+  private long lastVersion;
+
+  public CeTasksSubmittedWatcher(Settings settings, CeProcessingScheduler processingScheduler) {
+    this.settings = settings;
+    this.processingScheduler = processingScheduler;
+  }
+
+  @Override
+  public void start() {
+    String sharedPath = settings.getString(PROPERTY_SHARED_PATH);
+    if (sharedPath == null) {
+      LOG.debug("Property {} is not set. Compute Engine workers will only rely on polling of the queue.", PROPERTY_SHARED_PATH);
+      return;
+    }
+    this.processCommands = DefaultProcessCommands.secondary(new File(sharedPath), ProcessId.COMPUTE_ENGINE.getIpcIndex());
+    this.lastVersion = processCommands.getTasksSubmittedVersion();
+    this.executorService = createExecutorService();
+    executorService.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        watch();
+      }
+    }, WATCH_DELAY_IN_MS, WATCH_DELAY_IN_MS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Must be single-threaded, so that {@link #lastVersion} is confined to one thread
+   */
+  ScheduledExecutorService createExecutorService() {
+    return Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder()
+        .setNameFormat("ce-tasks-watcher-%d")
+        .setDaemon(true)
+        .build());
+  }
+
+  private void watch() {
+    try {
+      long version = processCommands.getTasksSubmittedVersion();
+      if (version != lastVersion) {
+        lastVersion = version;
+        processingScheduler.wakeUp();
+      }
+    } catch (RuntimeException e) {
+      // exception must not stop the scheduled executor
+      LOG.error("Failed to wake up Compute Engine workers", e);
+    }
+  }
+
+  @Override
+  public void stop() {
+    if (executorService != null) {
+      executorService.shutdownNow();
+    }
+    if (processCommands != null) {
+      processCommands.endWatch();
+    }
+  }
+}
@@ -19,17 +19,24 @@
  */
 package org.sonar.server.es;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.ActionRequest;
 import org.elasticsearch.action.admin.indices.settings.get.GetSettingsResponse;
 import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequestBuilder;
 import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkRequestBuilder;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequestBuilder;
@@ -39,12 +46,15 @@ import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.common.unit.ByteSizeUnit;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.rest.RestStatus;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHitField;
 import org.elasticsearch.search.sort.SortOrder;
 import org.picocontainer.Startable;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
+import org.sonar.api.utils.log.Profiler;
 import org.sonar.core.util.ProgressLogger;
 
 import static java.lang.String.format;
@@ -52,7 +62,9 @@ import static java.lang.String.format;
 /**
  * Helper to bulk requests in an efficient way :
  * <ul>
- *   <li>bulk request is sent on the wire when its size is higher than 5Mb</li>
+ *   <li>bulk request is sent on the wire when its size is higher than 1Mb</li>
+ *   <li>several bulk requests can be executed concurrently</li>
+ *   <li>requests rejected by Elasticsearch because its queues are full are retried with an exponential backoff</li>
  *   <li>on large table indexing, replicas and automatic refresh can be temporarily disabled</li>
  *   <li>index refresh is optional (enabled by default)</li>
  * </ul>
@@ -63,6 +75,9 @@ public class BulkIndexer implements Startable {
   private static final long FLUSH_BYTE_SIZE = new ByteSizeValue(1, ByteSizeUnit.MB).bytes();
   private static final String REFRESH_INTERVAL_SETTING = "index.refresh_interval";
   private static final String ALREADY_STARTED_MESSAGE = "Bulk indexing is already started";
+  private static final long INITIAL_BACKOFF_MILLIS = 50L;
+  private static final long MAX_BACKOFF_MILLIS = 5_000L;
+  private static final int MAX_RETRIES_ON_STOP = 10;
 
   private final EsClient client;
   private final String indexName;
@@ -72,9 +87,17 @@ public class BulkIndexer implements Startable {
   private BulkRequestBuilder bulkRequest = null;
   private Map<String, Object> largeInitialSettings = null;
   private final AtomicLong counter = new AtomicLong(0L);
+  // size of the added requests. Requests resent after being rejected are not counted again.
+  private final AtomicLong addedBytes = new AtomicLong(0L);
+  private final AtomicLong rejections = new AtomicLong(0L);
+  private final Queue<ActionRequest> rejectedRequests = new ConcurrentLinkedQueue<>();
+  private long initialBackoffMillis = INITIAL_BACKOFF_MILLIS;
+  private long maxBackoffMillis = MAX_BACKOFF_MILLIS;
+  private long backoffMillis = 0L;
   private final int concurrentRequests;
   private final Semaphore semaphore;
   private final ProgressLogger progress;
+  private final Profiler profiler = Profiler.create(LOGGER);
 
   public BulkIndexer(EsClient client, String indexName) {
     this.client = client;
@@ -101,6 +124,13 @@ public class BulkIndexer implements Startable {
     return this;
   }
 
+  @VisibleForTesting
+  BulkIndexer setBackoffMillis(long initialBackoffMillis, long maxBackoffMillis) {
+    this.initialBackoffMillis = initialBackoffMillis;
+    this.maxBackoffMillis = maxBackoffMillis;
+    return this;
+  }
+
   /**
    * By default refresh of index is executed in method {@link #stop()}. Set to true
    * to disable refresh.
@@ -134,12 +164,20 @@ public class BulkIndexer implements Startable {
     }
     bulkRequest = client.prepareBulk().setRefresh(false);
     counter.set(0L);
+    addedBytes.set(0L);
+    rejections.set(0L);
+    rejectedRequests.clear();
+    backoffMillis = 0L;
+    profiler.start();
     progress.start();
   }
 
   public void add(ActionRequest request) {
-    bulkRequest.request().add(request);
-    if (bulkRequest.request().estimatedSizeInBytes() >= flushByteSize) {
+    BulkRequest bulk = bulkRequest.request();
+    long sizeBefore = bulk.estimatedSizeInBytes();
+    bulk.add(request);
+    addedBytes.addAndGet(bulk.estimatedSizeInBytes() - sizeBefore);
+    if (bulk.estimatedSizeInBytes() >= flushByteSize) {
       executeBulk();
     }
   }
@@ -196,14 +234,20 @@ public class BulkIndexer implements Startable {
     if (bulkRequest.numberOfActions() > 0) {
       executeBulk();
     }
-    try {
-      if (semaphore.tryAcquire(concurrentRequests, 10, TimeUnit.MINUTES)) {
-        semaphore.release(concurrentRequests);
+    waitForPendingRequests();
+    int retries = 0;
+    while (!rejectedRequests.isEmpty()) {
+      if (retries >= MAX_RETRIES_ON_STOP) {
+        LOGGER.error("Fail to index {} documents in [{}], requests are still rejected by Elasticsearch", rejectedRequests.size(), indexName);
+        rejectedRequests.clear();
+        break;
       }
-    } catch (InterruptedException e) {
-      throw new IllegalStateException("Elasticsearch bulk requests still being executed after 10 minutes", e);
+      executeBulk();
+      waitForPendingRequests();
+      retries++;
     }
     progress.stop();
+    logStatistics();
 
     if (!disableRefresh) {
       client.prepareRefresh(indexName).get();
@@ -225,13 +269,62 @@ public class BulkIndexer implements Startable {
     req.get();
   }
 
+  private void waitForPendingRequests() {
+    try {
+      if (semaphore.tryAcquire(concurrentRequests, 10, TimeUnit.MINUTES)) {
+        semaphore.release(concurrentRequests);
+      }
+    } catch (InterruptedException e) {
+      throw new IllegalStateException("Elasticsearch bulk requests still being executed after 10 minutes", e);
+    }
+  }
+
   private void executeBulk() {
     final BulkRequestBuilder req = this.bulkRequest;
     this.bulkRequest = client.prepareBulk().setRefresh(false);
+    retryRejectedRequests(req);
     semaphore.acquireUninterruptibly();
     req.execute(new BulkResponseActionListener(req));
   }
 
+  /**
+   * Requests rejected by Elasticsearch are sent again with the next bulk request, after waiting
+   * for a delay that doubles as long as rejections occur. The caller thread is paused, so that
+   * no more documents are pushed to an overloaded cluster.
+   */
+  private void retryRejectedRequests(BulkRequestBuilder req) {
+    if (rejectedRequests.isEmpty()) {
+      backoffMillis = 0L;
+      return;
+    }
+    backoffMillis = Math.min(maxBackoffMillis, backoffMillis == 0L ? initialBackoffMillis : (backoffMillis * 2));
+    LOGGER.debug("Elasticsearch rejected bulk requests on [{}], retrying in {}ms", indexName, backoffMillis);
+    Uninterruptibles.sleepUninterruptibly(backoffMillis, TimeUnit.MILLISECONDS);
+    ActionRequest rejected = rejectedRequests.poll();
+    while (rejected != null) {
+      req.request().add(rejected);
+      rejected = rejectedRequests.poll();
+    }
+  }
+
+  private void logStatistics() {
+    profiler
+      .addContext("docs", counter.get())
+      .addContext("bytes", addedBytes.get())
+      .addContext("rejections", rejections.get());
+    String message = format("Bulk indexing of [%s] done", indexName);
+    if (large) {
+      profiler.stopInfo(message);
+    } else {
+      profiler.stopDebug(message);
+    }
+  }
+
+  private void reject(ActionRequest request) {
+    rejectedRequests.add(request);
+    rejections.incrementAndGet();
+  }
+
   private class BulkResponseActionListener implements ActionListener<BulkResponse> {
     private final BulkRequestBuilder req;
 
@@ -241,20 +334,38 @@ public class BulkIndexer implements Startable {
 
     @Override
     public void onResponse(BulkResponse response) {
-      semaphore.release();
-      counter.addAndGet(response.getItems().length);
-
-      for (BulkItemResponse item : response.getItems()) {
-        if (item.isFailed()) {
-          LOGGER.error("index [{}], type [{}], id [{}], message [{}]", item.getIndex(), item.getType(), item.getId(), item.getFailureMessage());
+      try {
+        List<ActionRequest> requests = req.request().requests();
+        for (BulkItemResponse item : response.getItems()) {
+          if (item.isFailed() && item.getFailure().getStatus() == RestStatus.TOO_MANY_REQUESTS) {
+            reject(requests.get(item.getItemId()));
+          } else {
+            counter.incrementAndGet();
+            if (item.isFailed()) {
+              LOGGER.error("index [{}], type [{}], id [{}], message [{}]", item.getIndex(), item.getType(), item.getId(), item.getFailureMessage());
+            }
+          }
         }
+      } finally {
+        // rejected requests must be queued before releasing the permit, as stop() relies on it
+        semaphore.release();
       }
     }
 
     @Override
     public void onFailure(Throwable e) {
-      semaphore.release();
-      LOGGER.error("Fail to execute bulk index request: " + req, e);
+      try {
+        if (ExceptionsHelper.unwrapCause(e) instanceof EsRejectedExecutionException) {
+          BulkRequest request = req.request();
+          for (ActionRequest rejected : request.requests()) {
+            reject(rejected);
+          }
+        } else {
+          LOGGER.error("Fail to execute bulk index request: " + req, e);
+        }
+      } finally {
+        semaphore.release();
+      }
     }
   }
 }
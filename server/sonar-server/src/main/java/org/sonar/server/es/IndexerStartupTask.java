@@ -19,9 +19,19 @@
  */
 package org.sonar.server.es;
 
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.sonar.api.config.Settings;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
+import org.sonar.api.utils.log.Profiler;
 import org.sonar.server.activity.index.ActivityIndexer;
 import org.sonar.server.issue.index.IssueAuthorizationIndexer;
 import org.sonar.server.issue.index.IssueIndexer;
@@ -29,6 +39,10 @@ import org.sonar.server.test.index.TestIndexer;
 import org.sonar.server.user.index.UserIndexer;
 import org.sonar.server.view.index.ViewIndexer;
 
+/**
+ * Populates the indices at server startup. Indices are independent, so they are populated
+ * concurrently.
+ */
 public class IndexerStartupTask {
 
   private static final Logger LOG = Loggers.get(IndexerStartupTask.class);
@@ -60,21 +74,51 @@ public class IndexerStartupTask {
 
   public void execute() {
     if (!settings.getBoolean("sonar.internal.es.disableIndexes")) {
-      LOG.info("Index activities");
-      activityIndexer.setEnabled(true).index();
+      List<IndexingTask> tasks = new ArrayList<>();
+      tasks.add(new IndexingTask("activities", activityIndexer));
+      // authorizations must be indexed before issues
+      tasks.add(new IndexingTask("issues", issueAuthorizationIndexer, issueIndexer));
+      tasks.add(new IndexingTask("tests", testIndexer));
+      tasks.add(new IndexingTask("users", userIndexer));
+      tasks.add(new IndexingTask("views", viewIndexer));
+      executeConcurrently(tasks);
+    }
+  }
 
-      LOG.info("Index issues");
-      issueAuthorizationIndexer.setEnabled(true).index();
-      issueIndexer.setEnabled(true).index();
+  private static void executeConcurrently(List<IndexingTask> tasks) {
+    ExecutorService executor = Executors.newFixedThreadPool(tasks.size(),
+      new ThreadFactoryBuilder().setNameFormat("es-startup-indexer-%d").setDaemon(true).build());
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (IndexingTask task : tasks) {
+        futures.add(executor.submit(task));
+      }
+      for (Future<?> future : futures) {
+        Uninterruptibles.getUninterruptibly(future);
+      }
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 
-      LOG.info("Index tests");
-      testIndexer.setEnabled(true).index();
+  private static class IndexingTask implements Runnable {
+    private final String label;
+    private final BaseIndexer[] indexers;
 
-      LOG.info("Index users");
-      userIndexer.setEnabled(true).index();
+    IndexingTask(String label, BaseIndexer... indexers) {
+      this.label = label;
+      this.indexers = indexers;
+    }
 
-      LOG.info("Index views");
-      viewIndexer.setEnabled(true).index();
+    @Override
+    public void run() {
+      Profiler profiler = Profiler.create(LOG).startInfo("Index " + label);
+      for (BaseIndexer indexer : indexers) {
+        indexer.setEnabled(true).index();
+      }
+      profiler.stopInfo();
     }
   }
 
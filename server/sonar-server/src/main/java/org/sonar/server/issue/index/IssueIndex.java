@@ -336,8 +336,9 @@ public class IssueIndex extends BaseIndex {
       if (userLogin != null) {
         groupsAndUser.should(termQuery(IssueIndexDefinition.FIELD_AUTHORIZATION_USERS, userLogin));
       }
-      for (String group : userGroups) {
-        groupsAndUser.should(termQuery(IssueIndexDefinition.FIELD_AUTHORIZATION_GROUPS, group));
+      if (!userGroups.isEmpty()) {
+        // a single terms query instead of one term query per group
+        groupsAndUser.should(termsQuery(IssueIndexDefinition.FIELD_AUTHORIZATION_GROUPS, userGroups));
       }
       return QueryBuilders.hasParentQuery(IssueIndexDefinition.TYPE_AUTHORIZATION,
         QueryBuilders.boolQuery().must(matchAllQuery()).filter(groupsAndUser));
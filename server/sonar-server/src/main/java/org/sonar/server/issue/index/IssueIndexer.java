@@ -19,6 +19,8 @@
  */
 package org.sonar.server.issue.index;
 
+import com.google.common.collect.Iterables;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import javax.annotation.Nullable;
@@ -34,6 +36,7 @@ import org.sonar.server.es.EsUtils;
 
 import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
 import static org.elasticsearch.index.query.QueryBuilders.termQuery;
+import static org.sonar.db.DatabaseUtils.PARTITION_SIZE_FOR_ORACLE;
 import static org.sonar.server.issue.index.IssueIndexDefinition.FIELD_ISSUE_PROJECT_UUID;
 import static org.sonar.server.issue.index.IssueIndexDefinition.FIELD_ISSUE_TECHNICAL_UPDATED_AT;
 import static org.sonar.server.issue.index.IssueIndexDefinition.INDEX;
@@ -70,6 +73,25 @@ public class IssueIndexer extends BaseIndexer {
     });
   }
 
+  /**
+   * Indexes only the issues with the given keys, for example the issues inserted or updated
+   * by an analysis, instead of scrolling over all the issues updated since the last indexation.
+   */
+  public void index(final Collection<String> issueKeys) {
+    if (issueKeys.isEmpty()) {
+      return;
+    }
+    super.index(new IndexerTask() {
+      @Override
+      public long index(long lastUpdatedAt) {
+        doIndexByKeys(createBulkIndexer(false), issueKeys);
+        // issues of other projects may have been updated before these ones but not indexed yet,
+        // so the date of last indexation must not be moved forward
+        return 0L;
+      }
+    });
+  }
+
   /**
    * For benchmarks
    */
@@ -90,6 +112,26 @@ public class IssueIndexer extends BaseIndexer {
     }
   }
 
+  private void doIndexByKeys(BulkIndexer bulk, Collection<String> issueKeys) {
+    DbSession dbSession = dbClient.openSession(false);
+    try {
+      bulk.start();
+      for (List<String> partition : Iterables.partition(issueKeys, PARTITION_SIZE_FOR_ORACLE)) {
+        IssueResultSetIterator rowIt = IssueResultSetIterator.createForKeys(dbClient, dbSession, partition);
+        try {
+          while (rowIt.hasNext()) {
+            bulk.add(newIndexRequest(rowIt.next()));
+          }
+        } finally {
+          rowIt.close();
+        }
+      }
+      bulk.stop();
+    } finally {
+      dbSession.close();
+    }
+  }
+
   private long doIndex(BulkIndexer bulk, Iterator<IssueDoc> issues) {
     bulk.start();
     long maxDate = 0L;
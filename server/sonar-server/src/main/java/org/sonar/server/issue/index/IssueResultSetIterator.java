@@ -28,6 +28,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Date;
+import java.util.List;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.apache.commons.lang.StringUtils;
@@ -39,8 +40,10 @@ import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
 import org.sonar.db.ResultSetIterator;
 
+import static java.lang.String.format;
 import static org.sonar.api.utils.DateUtils.longToDate;
 import static org.sonar.db.DatabaseUtils.getLong;
+import static org.sonar.db.DatabaseUtils.repeatCondition;
 
 /**
  * Scrolls over table ISSUES and reads documents to populate
@@ -90,6 +93,8 @@ class IssueResultSetIterator extends ResultSetIterator<IssueDoc> {
 
   private static final String SQL_AFTER_DATE = SQL_ALL + " where i.updated_at>?";
 
+  private static final String SQL_BY_KEYS = SQL_ALL + " where i.kee in (%s)";
+
   private static final String PROJECT_FILTER = " AND root.uuid=?";
 
   private static final Splitter TAGS_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
@@ -119,6 +124,25 @@ class IssueResultSetIterator extends ResultSetIterator<IssueDoc> {
     }
   }
 
+  /**
+   * Selects only the issues with the given keys. The number of keys must not exceed
+   * {@link DatabaseUtils#PARTITION_SIZE_FOR_ORACLE}.
+   */
+  static IssueResultSetIterator createForKeys(DbClient dbClient, DbSession session, List<String> issueKeys) {
+    try {
+      String sql = format(SQL_BY_KEYS, repeatCondition("?", issueKeys.size(), ","));
+      PreparedStatement stmt = dbClient.getMyBatis().newScrollingSelectStatement(session, sql);
+      int index = 1;
+      for (String issueKey : issueKeys) {
+        stmt.setString(index, issueKey);
+        index++;
+      }
+      return new IssueResultSetIterator(stmt);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Fail to prepare SQL request to select issues by keys", e);
+    }
+  }
+
   @CheckForNull
   private static String extractDirPath(@Nullable String filePath, String scope) {
     if (filePath != null) {
@@ -29,6 +29,9 @@ import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.sonar.api.rule.RuleKey;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.api.utils.log.Profiler;
 import org.sonar.core.issue.DefaultIssue;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
@@ -54,6 +57,8 @@ import static org.sonar.server.issue.ws.SearchAdditionalField.USERS;
  */
 public class SearchResponseLoader {
 
+  private static final Logger LOGGER = Loggers.get(SearchResponseLoader.class);
+
   private final DbClient dbClient;
   private final IssueService issueService;
   private final ActionService actionService;
@@ -70,18 +75,31 @@ public class SearchResponseLoader {
    * The issue keys are given by the multi-criteria search in Elasticsearch index.
    */
   public SearchResponseData load(Collector collector, @Nullable Facets facets) {
+    Profiler profiler = Profiler.createIfDebug(LOGGER);
     DbSession dbSession = dbClient.openSession(false);
     try {
+      profiler.startDebug("Load issues");
       SearchResponseData result = new SearchResponseData(dbClient.issueDao().selectByOrderedKeys(dbSession, collector.getIssueKeys()));
       collector.collect(result.getIssues());
+      profiler.stopDebug();
 
+      profiler.startDebug("Load rules");
       loadRules(collector, dbSession, result);
+      profiler.stopDebug();
       // order is important - loading of comments complete the list of users: loadComments() is
       // before loadUsers()
+      profiler.startDebug("Load comments");
       loadComments(collector, dbSession, result);
+      profiler.stopDebug();
+      profiler.startDebug("Load users");
       loadUsers(collector, dbSession, result);
+      profiler.stopDebug();
+      profiler.startDebug("Load components");
       loadComponents(collector, dbSession, result);
+      profiler.stopDebug();
+      profiler.startDebug("Load actions and transitions");
       loadActionsAndTransitions(collector, result);
+      profiler.stopDebug();
       completeTotalEffortFromFacet(facets, result);
       return result;
     } finally {
@@ -119,23 +137,29 @@ public class SearchResponseLoader {
     // They should be dropped but are kept for backward-compatibility (see SearchResponseFormat)
     result.addComponents(dbClient.componentDao().selectByUuids(dbSession, collector.getComponentUuids()));
     result.addComponents(dbClient.componentDao().selectSubProjectsByComponentUuids(dbSession, collector.getComponentUuids()));
+    Set<String> loadedUuids = new HashSet<>();
     for (ComponentDto component : result.getComponents()) {
       collector.addProjectUuid(component.projectUuid());
+      loadedUuids.add(component.uuid());
+    }
+    // projects are often already loaded, for example when issues are on sub-projects or on the project itself
+    Set<String> projectUuidsToLoad = new HashSet<>(collector.getProjectUuids());
+    projectUuidsToLoad.removeAll(loadedUuids);
+    if (!projectUuidsToLoad.isEmpty()) {
+      result.addComponents(dbClient.componentDao().selectByUuids(dbSession, projectUuidsToLoad));
     }
-    List<ComponentDto> projects = dbClient.componentDao().selectByUuids(dbSession, collector.getProjectUuids());
-    result.addComponents(projects);
   }
 
   private void loadActionsAndTransitions(Collector collector, SearchResponseData result) {
     if (collector.contains(ACTIONS) || collector.contains(TRANSITIONS)) {
       for (IssueDto dto : result.getIssues()) {
         // so that IssueDto can be used.
+        // TODO workflow and action engines must not depend on org.sonar.api.issue.Issue but on a generic interface
+        DefaultIssue issue = dto.toDefaultIssue();
         if (collector.contains(ACTIONS)) {
-          result.addActions(dto.getKey(), actionService.listAvailableActions(dto.toDefaultIssue()));
+          result.addActions(issue.key(), actionService.listAvailableActions(issue));
         }
         if (collector.contains(TRANSITIONS)) {
-          // TODO workflow and action engines must not depend on org.sonar.api.issue.Issue but on a generic interface
-          DefaultIssue issue = dto.toDefaultIssue();
           result.addTransitions(issue.key(), issueService.listTransitions(issue));
         }
       }
@@ -22,7 +22,6 @@ package org.sonar.server.source;
 import com.google.common.collect.Lists;
 
 import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
 
 class DecorationDataHolder {
@@ -114,19 +113,18 @@ class DecorationDataHolder {
   }
 
   private void insertAndPreserveOrder(OpeningHtmlTag newEntry, List<OpeningHtmlTag> openingHtmlTags) {
-    int insertionIndex = 0;
-    Iterator<OpeningHtmlTag> tagIterator = openingHtmlTags.iterator();
-    while (tagIterator.hasNext() && tagIterator.next().getStartOffset() <= newEntry.getStartOffset()) {
-      insertionIndex++;
+    // entries are usually loaded in order, so the list is scanned from its end
+    int insertionIndex = openingHtmlTags.size();
+    while (insertionIndex > 0 && openingHtmlTags.get(insertionIndex - 1).getStartOffset() > newEntry.getStartOffset()) {
+      insertionIndex--;
     }
     openingHtmlTags.add(insertionIndex, newEntry);
   }
 
   private void insertAndPreserveOrder(int newOffset, List<Integer> orderedOffsets) {
-    int insertionIndex = 0;
-    Iterator<Integer> entriesIterator = orderedOffsets.iterator();
-    while (entriesIterator.hasNext() && entriesIterator.next() <= newOffset) {
-      insertionIndex++;
+    int insertionIndex = orderedOffsets.size();
+    while (insertionIndex > 0 && orderedOffsets.get(insertionIndex - 1) > newOffset) {
+      insertionIndex--;
     }
     orderedOffsets.add(insertionIndex, newOffset);
   }
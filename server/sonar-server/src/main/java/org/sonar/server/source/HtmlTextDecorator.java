@@ -24,6 +24,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.StringReader;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.sonar.api.utils.log.Loggers;
@@ -111,7 +112,7 @@ class HtmlTextDecorator {
 
     if (shouldAppendCharToHtmlOutput(charsReader)) {
       char currentChar = (char) charsReader.getCurrentValue();
-      currentHtmlLine.append(normalize(currentChar));
+      appendNormalized(currentChar, currentHtmlLine);
     }
   }
 
@@ -130,18 +131,16 @@ class HtmlTextDecorator {
   }
 
 
-  private char[] normalize(char currentChar) {
-    char[] normalizedChars;
+  private static void appendNormalized(char currentChar, StringBuilder decoratedText) {
     if (currentChar == HTML_OPENING) {
-      normalizedChars = ENCODED_HTML_OPENING.toCharArray();
+      decoratedText.append(ENCODED_HTML_OPENING);
     } else if (currentChar == HTML_CLOSING) {
-      normalizedChars = ENCODED_HTML_CLOSING.toCharArray();
+      decoratedText.append(ENCODED_HTML_CLOSING);
     } else if (currentChar == AMPERSAND) {
-      normalizedChars = ENCODED_AMPERSAND.toCharArray();
+      decoratedText.append(ENCODED_AMPERSAND);
     } else {
-      normalizedChars = new char[]{currentChar};
+      decoratedText.append(currentChar);
     }
-    return normalizedChars;
   }
 
   private boolean shouldAppendCharToHtmlOutput(CharactersReader charsReader) {
@@ -159,6 +158,11 @@ class HtmlTextDecorator {
   }
 
   private Collection<String> getTagsToOpen(int currentIndex, DecorationDataHolder dataHolder) {
+    OpeningHtmlTag currentOpeningTag = dataHolder.getCurrentOpeningTagEntry();
+    if (currentOpeningTag == null || currentIndex != currentOpeningTag.getStartOffset()) {
+      // most characters do not open any tag
+      return Collections.emptyList();
+    }
     Collection<String> tagsToOpen = newArrayList();
     while (dataHolder.getCurrentOpeningTagEntry() != null && currentIndex == dataHolder.getCurrentOpeningTagEntry().getStartOffset()) {
       tagsToOpen.add(dataHolder.getCurrentOpeningTagEntry().getCssClass());
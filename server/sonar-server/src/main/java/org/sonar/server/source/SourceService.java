@@ -19,13 +19,12 @@
  */
 package org.sonar.server.source;
 
-import com.google.common.base.Function;
-import com.google.common.base.Functions;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
-import com.google.common.base.Predicate;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.FluentIterable;
-import javax.annotation.Nonnull;
+import java.util.function.BiFunction;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
 import org.sonar.db.protobuf.DbFileSources;
@@ -33,8 +32,21 @@ import org.sonar.db.source.FileSourceDto;
 
 public class SourceService {
 
+  /**
+   * Total length of the decorated lines kept in memory, about 8MB
+   */
+  private static final long HTML_CACHE_MAX_CHARS = 4_000_000L;
+
   private final DbClient dbClient;
   private final HtmlSourceDecorator htmlDecorator;
+  /**
+   * Decorated lines by file UUID, data hash and line number. The data hash changes whenever the source, the highlighting
+   * or the symbols of the file change, so entries never need to be evicted explicitly.
+   */
+  private final Cache<String, String> htmlLines = CacheBuilder.newBuilder()
+    .maximumWeight(HTML_CACHE_MAX_CHARS)
+    .weigher((String key, String html) -> key.length() + html.length())
+    .build();
 
   public SourceService(DbClient dbClient, HtmlSourceDecorator htmlDecorator) {
     this.dbClient = dbClient;
@@ -47,7 +59,7 @@ public class SourceService {
    * @param toInclusive starts from 1, must be greater than or equal param {@code from}
    */
   public Optional<Iterable<DbFileSources.Line>> getLines(DbSession dbSession, String fileUuid, int from, int toInclusive) {
-    return getLines(dbSession, fileUuid, from, toInclusive, Functions.identity());
+    return getLines(dbSession, fileUuid, from, toInclusive, (dto, line) -> line);
   }
 
   /**
@@ -55,54 +67,45 @@ public class SourceService {
    * @see #getLines(DbSession, String, int, int)
    */
   public Optional<Iterable<String>> getLinesAsRawText(DbSession dbSession, String fileUuid, int from, int toInclusive) {
-    return getLines(dbSession, fileUuid, from, toInclusive, LineToRaw.INSTANCE);
+    return getLines(dbSession, fileUuid, from, toInclusive, (dto, line) -> line.getSource());
   }
 
   public Optional<Iterable<String>> getLinesAsHtml(DbSession dbSession, String fileUuid, int from, int toInclusive) {
-    return getLines(dbSession, fileUuid, from, toInclusive, lineToHtml());
+    return getLines(dbSession, fileUuid, from, toInclusive, this::lineToHtml);
   }
 
-  private <E> Optional<Iterable<E>> getLines(DbSession dbSession, String fileUuid, int from, int toInclusive, Function<DbFileSources.Line, E> function) {
+  private <E> Optional<Iterable<E>> getLines(DbSession dbSession, String fileUuid, int from, int toInclusive,
+    BiFunction<FileSourceDto, DbFileSources.Line, E> function) {
     verifyLine(from);
     Preconditions.checkArgument(toInclusive >= from, String.format("Line number must greater than or equal to %d, got %d", from, toInclusive));
     FileSourceDto dto = dbClient.fileSourceDao().selectSourceByFileUuid(dbSession, fileUuid);
     if (dto == null) {
       return Optional.absent();
     }
-    DbFileSources.Data data = dto.getSourceData();
-    return Optional.of(FluentIterable.from(data.getLinesList())
-      .filter(new IsGreaterOrEqualThanLine(from))
-      .limit(toInclusive - from + 1)
-      .transform(function));
+    return Optional.of(FluentIterable.from(dto.getSourceLines(from, toInclusive - from + 1))
+      .transform(line -> function.apply(dto, line)));
   }
 
   private static void verifyLine(int line) {
     Preconditions.checkArgument(line >= 1, String.format("Line number must start at 1, got %d", line));
   }
 
-  private Function<DbFileSources.Line, String> lineToHtml() {
-    return line -> htmlDecorator.getDecoratedSourceAsHtml(line.getSource(), line.getHighlighting(), line.getSymbols());
-  }
-
-  private enum LineToRaw implements Function<DbFileSources.Line, String> {
-    INSTANCE;
-    @Override
-    public String apply(@Nonnull DbFileSources.Line line) {
-      return line.getSource();
+  private String lineToHtml(FileSourceDto dto, DbFileSources.Line line) {
+    if (dto.getDataHash() == null) {
+      return decorate(line);
     }
-
-  }
-
-  private static class IsGreaterOrEqualThanLine implements Predicate<DbFileSources.Line> {
-    private final int from;
-
-    IsGreaterOrEqualThanLine(int from) {
-      this.from = from;
+    String key = dto.getFileUuid() + ':' + dto.getDataHash() + ':' + line.getLine();
+    String html = htmlLines.getIfPresent(key);
+    if (html == null) {
+      html = decorate(line);
+      if (html != null) {
+        htmlLines.put(key, html);
+      }
     }
+    return html;
+  }
 
-    @Override
-    public boolean apply(@Nonnull DbFileSources.Line line) {
-      return line.hasLine() && line.getLine() >= from;
-    }
+  private String decorate(DbFileSources.Line line) {
+    return htmlDecorator.getDecoratedSourceAsHtml(line.getSource(), line.getHighlighting(), line.getSymbols());
   }
 }
@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
@@ -125,20 +126,8 @@ public class ServerUserSession extends AbstractUserSession<ServerUserSession> {
       return true;
     }
 
-    String projectKey = projectKeyByComponentKey.get(componentKey);
-    if (projectKey == null) {
-      ResourceDto project = resourceDao.getRootProjectByComponentKey(componentKey);
-      if (project == null) {
-        return false;
-      }
-      projectKey = project.getKey();
-    }
-    boolean hasComponentPermission = hasProjectPermission(permission, projectKey);
-    if (hasComponentPermission) {
-      projectKeyByComponentKey.put(componentKey, projectKey);
-      return true;
-    }
-    return false;
+    String projectKey = getRootProjectKey(componentKey);
+    return projectKey != null && hasProjectPermission(permission, projectKey);
   }
 
   @Override
@@ -147,20 +136,31 @@ public class ServerUserSession extends AbstractUserSession<ServerUserSession> {
       return true;
     }
 
-    String projectUuid = projectUuidByComponentUuid.get(componentUuid);
-    if (projectUuid == null) {
-      ResourceDto project = resourceDao.selectResource(componentUuid);
-      if (project == null) {
-        return false;
-      }
-      projectUuid = project.getProjectUuid();
-    }
-    boolean hasComponentPermission = hasProjectPermissionByUuid(permission, projectUuid);
-    if (hasComponentPermission) {
-      projectUuidByComponentUuid.put(componentUuid, projectUuid);
-      return true;
-    }
-    return false;
+    String projectUuid = getRootProjectUuid(componentUuid);
+    return projectUuid != null && hasProjectPermissionByUuid(permission, projectUuid);
+  }
+
+  /**
+   * The root project does not depend on the permission, so it's kept for the next checks on the same component.
+   * Components that do not exist are not cached.
+   */
+  @CheckForNull
+  private String getRootProjectKey(String componentKey) {
+    return projectKeyByComponentKey.computeIfAbsent(componentKey, key -> {
+      ResourceDto project = resourceDao.getRootProjectByComponentKey(key);
+      return project == null ? null : project.getKey();
+    });
+  }
+
+  /**
+   * @see #getRootProjectKey(String)
+   */
+  @CheckForNull
+  private String getRootProjectUuid(String componentUuid) {
+    return projectUuidByComponentUuid.computeIfAbsent(componentUuid, uuid -> {
+      ResourceDto project = resourceDao.selectResource(uuid);
+      return project == null ? null : project.getProjectUuid();
+    });
   }
 
 }
@@ -19,6 +19,8 @@
  */
 package org.sonar.server.util.cache;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -36,6 +38,12 @@ import org.sonar.server.util.ObjectInputStreamIterator;
  */
 public class DiskCache<O extends Serializable> {
 
+  /**
+   * Size of the buffers used to read and write the file. Objects are written one by one, so
+   * without buffering each field would end up in a distinct system call.
+   */
+  static final int BUFFER_SIZE = 64 * 1024;
+
   private final File file;
   private final System2 system2;
 
@@ -69,7 +77,7 @@ public class DiskCache<O extends Serializable> {
 
   public CloseableIterator<O> traverse() {
     try {
-      return new ObjectInputStreamIterator<>(FileUtils.openInputStream(file));
+      return new ObjectInputStreamIterator<>(new BufferedInputStream(FileUtils.openInputStream(file), BUFFER_SIZE));
     } catch (IOException e) {
       throw new IllegalStateException("Fail to traverse file: " + file, e);
     }
@@ -80,7 +88,7 @@ public class DiskCache<O extends Serializable> {
 
     private DiskAppender() {
       try {
-        this.output = new ObjectOutputStream(new FileOutputStream(file, true)) {
+        this.output = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file, true), BUFFER_SIZE)) {
           @Override
           protected void writeStreamHeader() throws IOException {
             // do not write stream headers as it's already done in constructor of DiskCache
@@ -0,0 +1,83 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2016 SonarSource SA
+ * mailto:contact AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.ce.monitoring;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HistogramTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private Histogram underTest = new Histogram(10, 100);
+
+  @Test
+  public void just_created_histogram_has_no_values() {
+    assertThat(underTest.getUpperBounds()).containsExactly(10, 100);
+    assertThat(underTest.getCounts()).containsExactly(0, 0, 0);
+  }
+
+  @Test
+  public void add_counts_values_in_the_range_of_their_upper_bound() {
+    underTest.add(-5);
+    underTest.add(10);
+    underTest.add(11);
+    underTest.add(100);
+    underTest.add(101);
+    underTest.add(Long.MAX_VALUE);
+
+    assertThat(underTest.getCounts()).containsExactly(2, 2, 2);
+  }
+
+  @Test
+  public void getCounts_returns_a_copy() {
+    underTest.getCounts()[0] = 5;
+
+    assertThat(underTest.getCounts()).containsExactly(0, 0, 0);
+  }
+
+  @Test
+  public void toString_lists_counts_by_range() {
+    underTest.add(1);
+    underTest.add(1_000);
+
+    assertThat(underTest.toString()).isEqualTo("<=10: 1, <=100: 0, >100: 1");
+  }
+
+  @Test
+  public void fail_if_no_upper_bound() {
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("At least one upper bound is required");
+
+    new Histogram();
+  }
+
+  @Test
+  public void fail_if_upper_bounds_are_not_in_strictly_ascending_order() {
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("Upper bounds must be in strictly ascending order");
+
+    new Histogram(10, 10);
+  }
+}
@@ -57,7 +57,8 @@ public class CeQueueImplTest {
 
   UuidFactory uuidFactory = UuidFactoryImpl.INSTANCE;
   CeQueueListener listener = mock(CeQueueListener.class);
-  CeQueue underTest = new CeQueueImpl(dbTester.getDbClient(), uuidFactory, new CeQueueListener[] {listener});
+  CeTasksSubmittedNotifier tasksSubmittedNotifier = mock(CeTasksSubmittedNotifier.class);
+  CeQueue underTest = new CeQueueImpl(dbTester.getDbClient(), uuidFactory, tasksSubmittedNotifier, new CeQueueListener[] {listener});
 
   @Test
   public void submit_returns_task_populated_from_CeTaskSubmit_and_creates_CeQueue_row() {
@@ -66,6 +67,7 @@ public class CeQueueImplTest {
 
     verifyCeTask(taskSubmit, task, null);
     verifyCeQueueDtoForTaskSubmit(taskSubmit);
+    verify(tasksSubmittedNotifier).notifyTasksSubmitted();
   }
 
   @Test
@@ -94,7 +96,11 @@ public class CeQueueImplTest {
     expectedException.expect(IllegalStateException.class);
     expectedException.expectMessage("Compute Engine does not currently accept new tasks");
 
-    submit(CeTaskTypes.REPORT, "PROJECT_1");
+    try {
+      submit(CeTaskTypes.REPORT, "PROJECT_1");
+    } finally {
+      verifyZeroInteractions(tasksSubmittedNotifier);
+    }
   }
 
   @Test
@@ -107,6 +113,7 @@ public class CeQueueImplTest {
     assertThat(tasks).hasSize(2);
     verifyCeTask(taskSubmit1, tasks.get(0), null);
     verifyCeTask(taskSubmit2, tasks.get(1), null);
+    verify(tasksSubmittedNotifier).notifyTasksSubmitted();
     verifyCeQueueDtoForTaskSubmit(taskSubmit1);
     verifyCeQueueDtoForTaskSubmit(taskSubmit2);
   }
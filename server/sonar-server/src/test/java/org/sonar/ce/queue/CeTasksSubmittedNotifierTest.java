@@ -0,0 +1,59 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2016 SonarSource SA
+ * mailto:contact AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.ce.queue;
+
+import java.io.File;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.api.config.Settings;
+import org.sonar.process.DefaultProcessCommands;
+import org.sonar.process.ProcessId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.process.ProcessEntryPoint.PROPERTY_SHARED_PATH;
+
+public class CeTasksSubmittedNotifierTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private Settings settings = new Settings();
+  private CeTasksSubmittedNotifier underTest = new CeTasksSubmittedNotifier(settings);
+
+  @Test
+  public void notify_compute_engine_process_through_shared_files() throws Exception {
+    File sharedDir = temp.newFolder();
+    settings.setProperty(PROPERTY_SHARED_PATH, sharedDir.getAbsolutePath());
+
+    try (DefaultProcessCommands ceProcessCommands = DefaultProcessCommands.secondary(sharedDir, ProcessId.COMPUTE_ENGINE.getIpcIndex())) {
+      long initialVersion = ceProcessCommands.getTasksSubmittedVersion();
+
+      underTest.notifyTasksSubmitted();
+
+      assertThat(ceProcessCommands.getTasksSubmittedVersion()).isNotEqualTo(initialVersion);
+    }
+  }
+
+  @Test
+  public void do_nothing_if_shared_path_is_not_defined() {
+    underTest.notifyTasksSubmitted();
+  }
+}
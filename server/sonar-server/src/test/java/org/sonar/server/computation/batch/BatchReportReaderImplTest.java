@@ -19,8 +19,11 @@
  */
 package org.sonar.server.computation.batch;
 
+import com.google.common.base.Strings;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Rule;
@@ -302,6 +305,19 @@ public class BatchReportReaderImplTest {
     res.close();
   }
 
+  @Test
+  public void readTests_reads_all_tests_when_they_span_several_buffers() {
+    List<ScannerReport.Test> tests = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      tests.add(ScannerReport.Test.newBuilder().setName("test_" + i).setStacktrace(Strings.repeat("at line " + i, i % 10)).build());
+    }
+    writer.writeTests(COMPONENT_REF, tests);
+
+    try (CloseableIterator<ScannerReport.Test> res = underTest.readTests(COMPONENT_REF)) {
+      assertThat(res).containsExactly(tests.toArray(new ScannerReport.Test[0]));
+    }
+  }
+
   @Test
   public void readCoverageDetails_returns_empty_CloseableIterator_when_file_does_not_exist() {
     assertThat(underTest.readCoverageDetails(COMPONENT_REF)).isEmpty();
@@ -315,4 +331,19 @@ public class BatchReportReaderImplTest {
     assertThat(res).containsExactly(COVERAGE_DETAIL_1, COVERAGE_DETAIL_2);
     res.close();
   }
+
+  @Test
+  public void readCoverageDetails_reads_all_coverage_details_when_they_span_several_buffers() {
+    List<ScannerReport.CoverageDetail> coverageDetails = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      coverageDetails.add(ScannerReport.CoverageDetail.newBuilder().setTestName("test_" + i)
+        .addCoveredFile(ScannerReport.CoverageDetail.CoveredFile.newBuilder().setFileRef(i).addCoveredLine(i).addCoveredLine(i + 1))
+        .build());
+    }
+    writer.writeCoverageDetails(COMPONENT_REF, coverageDetails);
+
+    try (CloseableIterator<ScannerReport.CoverageDetail> res = underTest.readCoverageDetails(COMPONENT_REF)) {
+      assertThat(res).containsExactly(coverageDetails.toArray(new ScannerReport.CoverageDetail[0]));
+    }
+  }
 }
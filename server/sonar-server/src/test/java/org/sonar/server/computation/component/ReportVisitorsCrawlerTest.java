@@ -28,7 +28,9 @@ import org.mockito.InOrder;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.sonar.server.computation.component.Component.Type.DIRECTORY;
 import static org.sonar.server.computation.component.Component.Type.FILE;
 import static org.sonar.server.computation.component.Component.Type.MODULE;
@@ -102,6 +104,36 @@ public class ReportVisitorsCrawlerTest {
     inOrder.verify(spyPostOrderTypeAwareVisitor).visitProject(COMPONENT_TREE);
   }
 
+  @Test
+  public void execute_pre_and_post_visitors_only_down_to_their_max_depth() throws Exception {
+    TypeAwareVisitor preOrderModuleVisitor = spy(new TestTypeAwareVisitor(CrawlerDepthLimit.MODULE, PRE_ORDER));
+    TypeAwareVisitor preOrderFileVisitor = spy(new TestTypeAwareVisitor(CrawlerDepthLimit.FILE, PRE_ORDER));
+    TypeAwareVisitor postOrderDirectoryVisitor = spy(new TestTypeAwareVisitor(CrawlerDepthLimit.DIRECTORY, POST_ORDER));
+    InOrder inOrder = inOrder(preOrderModuleVisitor, preOrderFileVisitor, postOrderDirectoryVisitor);
+    VisitorsCrawler underTest = new VisitorsCrawler(Arrays.<ComponentVisitor>asList(postOrderDirectoryVisitor, preOrderModuleVisitor, preOrderFileVisitor));
+    underTest.visit(COMPONENT_TREE);
+
+    inOrder.verify(preOrderModuleVisitor).visitProject(COMPONENT_TREE);
+    inOrder.verify(preOrderFileVisitor).visitProject(COMPONENT_TREE);
+    inOrder.verify(preOrderModuleVisitor).visitModule(MODULE_2);
+    inOrder.verify(preOrderFileVisitor).visitModule(MODULE_2);
+    inOrder.verify(preOrderModuleVisitor).visitModule(MODULE_3);
+    inOrder.verify(preOrderFileVisitor).visitModule(MODULE_3);
+    inOrder.verify(preOrderFileVisitor).visitDirectory(DIRECTORY_4);
+    inOrder.verify(preOrderFileVisitor).visitFile(FILE_5);
+    inOrder.verify(postOrderDirectoryVisitor).visitDirectory(DIRECTORY_4);
+    inOrder.verify(postOrderDirectoryVisitor).visitModule(MODULE_3);
+    inOrder.verify(postOrderDirectoryVisitor).visitModule(MODULE_2);
+    inOrder.verify(postOrderDirectoryVisitor).visitProject(COMPONENT_TREE);
+
+    verify(preOrderModuleVisitor, never()).visitAny(DIRECTORY_4);
+    verify(preOrderModuleVisitor, never()).visitAny(FILE_5);
+    verify(preOrderModuleVisitor, never()).visitDirectory(any(Component.class));
+    verify(preOrderModuleVisitor, never()).visitFile(any(Component.class));
+    verify(postOrderDirectoryVisitor, never()).visitAny(FILE_5);
+    verify(postOrderDirectoryVisitor, never()).visitFile(any(Component.class));
+  }
+
   @Test
   public void fail_with_IAE_when_visitor_is_not_path_aware_or_type_aware() throws Exception {
     thrown.expect(IllegalArgumentException.class);
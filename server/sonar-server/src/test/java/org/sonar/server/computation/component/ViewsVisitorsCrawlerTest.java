@@ -28,7 +28,9 @@ import org.mockito.InOrder;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.sonar.server.computation.component.Component.Type.PROJECT_VIEW;
 import static org.sonar.server.computation.component.Component.Type.SUBVIEW;
 import static org.sonar.server.computation.component.Component.Type.VIEW;
@@ -101,6 +103,33 @@ public class ViewsVisitorsCrawlerTest {
     inOrder.verify(spyPostOrderTypeAwareVisitor).visitView(COMPONENT_TREE);
   }
 
+  @Test
+  public void execute_pre_and_post_visitors_only_down_to_their_max_depth() throws Exception {
+    TypeAwareVisitor preOrderViewVisitor = spy(new TestTypeAwareVisitor(CrawlerDepthLimit.VIEW, PRE_ORDER));
+    TypeAwareVisitor preOrderProjectViewVisitor = spy(new TestTypeAwareVisitor(CrawlerDepthLimit.PROJECT_VIEW, PRE_ORDER));
+    TypeAwareVisitor postOrderSubViewVisitor = spy(new TestTypeAwareVisitor(CrawlerDepthLimit.SUBVIEW, POST_ORDER));
+    InOrder inOrder = inOrder(preOrderViewVisitor, preOrderProjectViewVisitor, postOrderSubViewVisitor);
+    VisitorsCrawler underTest = new VisitorsCrawler(Arrays.<ComponentVisitor>asList(postOrderSubViewVisitor, preOrderViewVisitor, preOrderProjectViewVisitor));
+    underTest.visit(COMPONENT_TREE);
+
+    inOrder.verify(preOrderViewVisitor).visitView(COMPONENT_TREE);
+    inOrder.verify(preOrderProjectViewVisitor).visitView(COMPONENT_TREE);
+    inOrder.verify(preOrderProjectViewVisitor).visitSubView(SUBVIEW_2);
+    inOrder.verify(preOrderProjectViewVisitor).visitSubView(SUBVIEW_3);
+    inOrder.verify(preOrderProjectViewVisitor).visitSubView(SUBVIEW_4);
+    inOrder.verify(preOrderProjectViewVisitor).visitProjectView(PROJECT_VIEW_5);
+    inOrder.verify(postOrderSubViewVisitor).visitSubView(SUBVIEW_4);
+    inOrder.verify(postOrderSubViewVisitor).visitSubView(SUBVIEW_3);
+    inOrder.verify(postOrderSubViewVisitor).visitSubView(SUBVIEW_2);
+    inOrder.verify(postOrderSubViewVisitor).visitView(COMPONENT_TREE);
+
+    verify(preOrderViewVisitor, never()).visitAny(SUBVIEW_2);
+    verify(preOrderViewVisitor, never()).visitSubView(any(Component.class));
+    verify(preOrderViewVisitor, never()).visitProjectView(any(Component.class));
+    verify(postOrderSubViewVisitor, never()).visitAny(PROJECT_VIEW_5);
+    verify(postOrderSubViewVisitor, never()).visitProjectView(any(Component.class));
+  }
+
   @Test
   public void fail_with_IAE_when_visitor_is_not_path_aware_or_type_aware() throws Exception {
     thrown.expect(IllegalArgumentException.class);
@@ -0,0 +1,65 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2016 SonarSource SA
+ * mailto:contact AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.issue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChangedIssueKeysImplTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  private ChangedIssueKeysImpl underTest = new ChangedIssueKeysImpl();
+
+  @Test
+  public void getKeys_is_empty_by_default() {
+    assertThat(underTest.getKeys()).isEmpty();
+  }
+
+  @Test
+  public void getKeys_returns_added_keys_once_in_order_of_addition() {
+    underTest.add("B");
+    underTest.add("A");
+    underTest.add("B");
+
+    assertThat(underTest.getKeys()).containsExactly("B", "A");
+  }
+
+  @Test
+  public void add_throws_NPE_if_key_is_null() {
+    expectedException.expect(NullPointerException.class);
+    expectedException.expectMessage("Issue key cannot be null");
+
+    underTest.add(null);
+  }
+
+  @Test
+  public void getKeys_can_not_be_modified() {
+    underTest.add("A");
+
+    expectedException.expect(UnsupportedOperationException.class);
+
+    underTest.getKeys().add("B");
+  }
+}
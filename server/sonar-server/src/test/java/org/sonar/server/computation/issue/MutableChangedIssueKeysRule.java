@@ -0,0 +1,49 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2016 SonarSource SA
+ * mailto:contact AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.issue;
+
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import org.junit.rules.ExternalResource;
+
+public class MutableChangedIssueKeysRule extends ExternalResource implements MutableChangedIssueKeys {
+  @CheckForNull
+  private MutableChangedIssueKeys delegate;
+
+  @Override
+  protected void before() throws Throwable {
+    this.delegate = new ChangedIssueKeysImpl();
+  }
+
+  @Override
+  protected void after() {
+    this.delegate = null;
+  }
+
+  @Override
+  public void add(String issueKey) {
+    this.delegate.add(issueKey);
+  }
+
+  @Override
+  public Set<String> getKeys() {
+    return this.delegate.getKeys();
+  }
+}
@@ -23,10 +23,12 @@ import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.SetMultimap;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
 import com.tngtech.java.junit.dataprovider.UseDataProvider;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -291,4 +293,93 @@ public class MapBasedRawMeasureRepositoryTest {
     assertThat(measures.iterator().next()).isSameAs(devMeasure);
   }
 
+  @Test
+  public void add_and_update_measures_with_and_without_developer_of_same_metric() {
+    Measure measure = Measure.newMeasureBuilder().create("value");
+    Measure devMeasure = Measure.newMeasureBuilder().forDeveloper(SOME_DEVELOPER).create("dev value");
+    underTest.add(FILE_COMPONENT, metric1, measure);
+    underTest.add(FILE_COMPONENT, metric1, devMeasure);
+
+    assertThat(underTest.getRawMeasure(FILE_COMPONENT, metric1).get()).isSameAs(measure);
+    assertThat(findByDeveloper(underTest.getRawMeasures(FILE_COMPONENT, metric1), null)).isSameAs(measure);
+    assertThat(findByDeveloper(underTest.getRawMeasures(FILE_COMPONENT, metric1), SOME_DEVELOPER)).isSameAs(devMeasure);
+
+    Measure updatedMeasure = Measure.updatedMeasureBuilder(measure).create();
+    Measure updatedDevMeasure = Measure.updatedMeasureBuilder(devMeasure).create();
+    underTest.update(FILE_COMPONENT, metric1, updatedDevMeasure);
+    assertThat(underTest.getRawMeasure(FILE_COMPONENT, metric1).get()).isSameAs(measure);
+    underTest.update(FILE_COMPONENT, metric1, updatedMeasure);
+
+    Set<Measure> measures = underTest.getRawMeasures(FILE_COMPONENT, metric1);
+    assertThat(measures).hasSize(2);
+    assertThat(findByDeveloper(measures, null)).isSameAs(updatedMeasure);
+    assertThat(findByDeveloper(measures, SOME_DEVELOPER)).isSameAs(updatedDevMeasure);
+    assertThat(underTest.getRawMeasure(FILE_COMPONENT, metric1).get()).isSameAs(updatedMeasure);
+  }
+
+  @Test
+  public void add_throws_UOE_if_developer_measure_already_exists() {
+    Measure devMeasure = Measure.newMeasureBuilder().forDeveloper(SOME_DEVELOPER).createNoValue();
+    underTest.add(FILE_COMPONENT, metric1, SOME_MEASURE);
+    underTest.add(FILE_COMPONENT, metric1, devMeasure);
+
+    expectedException.expect(UnsupportedOperationException.class);
+    underTest.add(FILE_COMPONENT, metric1, Measure.newMeasureBuilder().forDeveloper(new DumbDeveloper("DEV1")).createNoValue());
+  }
+
+  @Test
+  public void update_throws_UOE_if_only_measure_without_developer_exists() {
+    underTest.add(FILE_COMPONENT, metric1, SOME_MEASURE);
+
+    expectedException.expect(UnsupportedOperationException.class);
+    underTest.update(FILE_COMPONENT, metric1, Measure.newMeasureBuilder().forDeveloper(SOME_DEVELOPER).createNoValue());
+  }
+
+  @Test
+  public void measures_without_developer_of_same_metric_are_stored_per_component() {
+    Measure otherMeasure = Measure.newMeasureBuilder().create("other value");
+    underTest.add(FILE_COMPONENT, metric1, SOME_MEASURE);
+    underTest.add(OTHER_COMPONENT, metric1, otherMeasure);
+
+    Measure updatedMeasure = Measure.updatedMeasureBuilder(SOME_MEASURE).create();
+    underTest.update(FILE_COMPONENT, metric1, updatedMeasure);
+
+    assertThat(underTest.getRawMeasure(FILE_COMPONENT, metric1).get()).isSameAs(updatedMeasure);
+    assertThat(underTest.getRawMeasure(OTHER_COMPONENT, metric1).get()).isSameAs(otherMeasure);
+  }
+
+  @Test
+  public void getRawMeasures_returns_empty_if_component_has_no_measure() {
+    underTest.add(OTHER_COMPONENT, metric1, SOME_MEASURE);
+
+    assertThat(underTest.getRawMeasures(FILE_COMPONENT).isEmpty()).isTrue();
+    assertThat(underTest.getRawMeasures(FILE_COMPONENT, metric1)).isEmpty();
+  }
+
+  @Test
+  public void getRawMeasures_returns_measures_of_component_by_metric_key() {
+    Measure devMeasure = Measure.newMeasureBuilder().forDeveloper(SOME_DEVELOPER).createNoValue();
+    Measure otherMeasure = Measure.newMeasureBuilder().create("other value");
+    underTest.add(FILE_COMPONENT, metric1, SOME_MEASURE);
+    underTest.add(FILE_COMPONENT, metric1, devMeasure);
+    underTest.add(FILE_COMPONENT, metric2, otherMeasure);
+
+    SetMultimap<String, Measure> measures = underTest.getRawMeasures(FILE_COMPONENT);
+
+    assertThat(measures.keySet()).containsOnly(METRIC_KEY_1, METRIC_KEY_2);
+    assertThat(findByDeveloper(measures.get(METRIC_KEY_1), null)).isSameAs(SOME_MEASURE);
+    assertThat(findByDeveloper(measures.get(METRIC_KEY_1), SOME_DEVELOPER)).isSameAs(devMeasure);
+    assertThat(measures.get(METRIC_KEY_2)).hasSize(1);
+    assertThat(measures.get(METRIC_KEY_2).iterator().next()).isSameAs(otherMeasure);
+  }
+
+  private static Measure findByDeveloper(Set<Measure> measures, @Nullable final Developer developer) {
+    return from(measures).firstMatch(new Predicate<Measure>() {
+      @Override
+      public boolean apply(@Nonnull Measure input) {
+        return Objects.equals(input.getDeveloper(), developer);
+      }
+    }).get();
+  }
+
 }
@@ -133,6 +133,44 @@ public class CEQueueStatusImplTest {
     assertThat(underTest.getProcessingTime()).isEqualTo(calls);
   }
 
+  @Test
+  public void addSuccess_and_addError_add_processing_time_to_histogram() {
+    underTest.addSuccess(500);
+    underTest.addError(SOME_PROCESSING_TIME);
+    underTest.addSuccess(2 * 3_600_000L);
+
+    assertThat(underTest.getProcessingTimeHistogram().getCounts()).containsExactly(1, 1, 0, 0, 0, 1);
+  }
+
+  @Test
+  public void addWaitingTime_throws_IAE_if_time_is_less_than_0() {
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("Waiting time can not be < 0");
+
+    underTest.addWaitingTime(-1);
+  }
+
+  @Test
+  public void addWaitingTime_adds_time_to_histogram_only() {
+    underTest.addWaitingTime(0);
+    underTest.addWaitingTime(60_000L);
+    underTest.addWaitingTime(60_001L);
+
+    assertThat(underTest.getWaitingTimeHistogram().getCounts()).containsExactly(1, 0, 1, 1, 0, 0);
+    assertThat(underTest.getProcessingTimeHistogram().getCounts()).containsExactly(0, 0, 0, 0, 0, 0);
+    assertThat(underTest.getProcessingTime()).isEqualTo(0);
+  }
+
+  @Test
+  public void addQueueDepth_adds_pending_count_to_histogram() {
+    underTest.addQueueDepth(0);
+    underTest.addQueueDepth(0);
+    underTest.addQueueDepth(42);
+    underTest.addQueueDepth(5_000);
+
+    assertThat(underTest.getQueueDepthHistogram().getCounts()).containsExactly(2, 0, 0, 1, 0, 1);
+  }
+
   @Test
   public void count_Pending_from_database() {
     when(dbClient.ceQueueDao().countByStatus(any(DbSession.class), eq(CeQueueDto.Status.PENDING))).thenReturn(42);
@@ -20,12 +20,14 @@
 package org.sonar.server.computation.monitoring;
 
 import java.lang.management.ManagementFactory;
+import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
 import javax.management.InstanceNotFoundException;
 import javax.management.ObjectInstance;
 import javax.management.ObjectName;
 import org.junit.Test;
 import org.sonar.ce.monitoring.CEQueueStatus;
+import org.sonar.ce.monitoring.Histogram;
 import org.sonar.process.systeminfo.protobuf.ProtobufSystemInfo;
 import org.sonar.server.computation.configuration.CeConfiguration;
 
@@ -38,6 +40,9 @@ public class CeTasksMBeanImplTest {
   private static final long SUCCESS_COUNT = 13;
   private static final long PROCESSING_TIME = 987;
   private static final int WORKER_COUNT = 56;
+  private static final Histogram WAITING_TIME_HISTOGRAM = histogram(1, 2);
+  private static final Histogram PROCESSING_TIME_HISTOGRAM = histogram(3, 4);
+  private static final Histogram QUEUE_DEPTH_HISTOGRAM = histogram(5, 6);
 
   private CeTasksMBeanImpl underTest = new CeTasksMBeanImpl(new DumbCEQueueStatus(), new DumbCeConfiguration());
 
@@ -59,6 +64,9 @@ public class CeTasksMBeanImplTest {
     assertThat(underTest.getErrorCount()).isEqualTo(ERROR_COUNT);
     assertThat(underTest.getSuccessCount()).isEqualTo(SUCCESS_COUNT);
     assertThat(underTest.getProcessingTime()).isEqualTo(PROCESSING_TIME);
+    assertThat(underTest.getWaitingTimeHistogram()).containsExactly(1, 1);
+    assertThat(underTest.getProcessingTimeHistogram()).containsExactly(1, 1);
+    assertThat(underTest.getQueueDepthHistogram()).containsExactly(1, 1);
   }
 
   @Test
@@ -70,7 +78,19 @@ public class CeTasksMBeanImplTest {
   public void export_system_info() {
     ProtobufSystemInfo.Section section = underTest.toProtobuf();
     assertThat(section.getName()).isEqualTo("Compute Engine Tasks");
-    assertThat(section.getAttributesCount()).isEqualTo(6);
+    assertThat(section.getAttributesCount()).isEqualTo(9);
+    assertThat(section.getAttributesList().stream()
+      .filter(attribute -> attribute.getKey().equals("Queue Depth Histogram"))
+      .map(ProtobufSystemInfo.Attribute::getStringValue)
+      .collect(Collectors.toList()))
+        .containsExactly("<=5: 1, >5: 1");
+  }
+
+  private static Histogram histogram(long upperBound, long valueAboveBound) {
+    Histogram histogram = new Histogram(upperBound);
+    histogram.add(upperBound);
+    histogram.add(valueAboveBound);
+    return histogram;
   }
 
   /**
@@ -119,6 +139,31 @@ public class CeTasksMBeanImplTest {
       return PROCESSING_TIME;
     }
 
+    @Override
+    public void addWaitingTime(long waitingTime) {
+      methodNotImplemented();
+    }
+
+    @Override
+    public void addQueueDepth(long pendingCount) {
+      methodNotImplemented();
+    }
+
+    @Override
+    public Histogram getWaitingTimeHistogram() {
+      return WAITING_TIME_HISTOGRAM;
+    }
+
+    @Override
+    public Histogram getProcessingTimeHistogram() {
+      return PROCESSING_TIME_HISTOGRAM;
+    }
+
+    @Override
+    public Histogram getQueueDepthHistogram() {
+      return QUEUE_DEPTH_HISTOGRAM;
+    }
+
     private long methodNotImplemented() {
       throw new UnsupportedOperationException("Not Implemented");
     }
@@ -25,13 +25,13 @@ import javax.annotation.Nullable;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
-import org.sonar.api.utils.System2;
 import org.sonar.api.utils.internal.TestSystem2;
 import org.sonar.ce.monitoring.CEQueueStatus;
 import org.sonar.ce.queue.CeQueueListener;
 import org.sonar.ce.queue.CeTask;
 import org.sonar.ce.queue.CeTaskResult;
 import org.sonar.ce.queue.CeTaskSubmit;
+import org.sonar.ce.queue.CeTasksSubmittedNotifier;
 import org.sonar.core.util.UuidFactory;
 import org.sonar.core.util.UuidFactoryImpl;
 import org.sonar.db.DbSession;
@@ -61,7 +61,7 @@ public class InternalCeQueueImplTest {
   @Rule
   public ExpectedException expectedException = ExpectedException.none();
 
-  System2 system2 = new TestSystem2().setNow(1_450_000_000_000L);
+  TestSystem2 system2 = new TestSystem2().setNow(1_450_000_000_000L);
 
   @Rule
   public DbTester dbTester = DbTester.create(system2);
@@ -70,7 +70,7 @@ public class InternalCeQueueImplTest {
   UuidFactory uuidFactory = UuidFactoryImpl.INSTANCE;
   CEQueueStatus queueStatus = new CEQueueStatusImpl(dbTester.getDbClient());
   CeQueueListener listener = mock(CeQueueListener.class);
-  InternalCeQueue underTest = new InternalCeQueueImpl(system2, dbTester.getDbClient(), uuidFactory, queueStatus, new CeQueueListener[] {listener});
+  InternalCeQueue underTest = new InternalCeQueueImpl(system2, dbTester.getDbClient(), uuidFactory, mock(CeTasksSubmittedNotifier.class), queueStatus, new CeQueueListener[] {listener});
 
   @Test
   public void submit_returns_task_populated_from_CeTaskSubmit_and_creates_CeQueue_row() {
@@ -209,6 +209,18 @@ public class InternalCeQueueImplTest {
     verify(listener, never()).onRemoved(eq(task), any(CeActivityDto.Status.class));
   }
 
+  @Test
+  public void peek_adds_waiting_time_and_queue_depth_to_queue_status() throws Exception {
+    submit(CeTaskTypes.REPORT, "PROJECT_1");
+    submit(CeTaskTypes.REPORT, "PROJECT_2");
+    system2.setNow(1_450_000_005_000L);
+
+    underTest.peek();
+
+    assertThat(queueStatus.getWaitingTimeHistogram().getCounts()).containsExactly(0, 1, 0, 0, 0, 0);
+    assertThat(queueStatus.getQueueDepthHistogram().getCounts()).containsExactly(0, 1, 0, 0, 0, 0);
+  }
+
   @Test
   public void peek_nothing_if_paused() throws Exception {
     submit(CeTaskTypes.REPORT, "PROJECT_1");
@@ -21,31 +21,26 @@ package org.sonar.server.computation.step;
 
 import org.junit.Rule;
 import org.junit.Test;
-import org.sonar.server.computation.batch.TreeRootHolderRule;
-import org.sonar.server.computation.component.Component;
-import org.sonar.server.computation.component.ReportComponent;
+import org.sonar.server.computation.issue.MutableChangedIssueKeysRule;
 import org.sonar.server.issue.index.IssueIndexer;
 
+import static java.util.Collections.singleton;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
-import static org.sonar.server.computation.component.Component.Type.*;
-import static org.sonar.server.computation.component.ReportComponent.*;
 
 public class IndexIssuesStepTest {
 
-  static String PROJECT_UUID = "PROJECT_UUID";
-
   @Rule
-  public TreeRootHolderRule treeRootHolder = new TreeRootHolderRule()
-    .setRoot(builder(PROJECT, 1).setUuid(PROJECT_UUID).setKey("PROJECT_KEY").build());
+  public MutableChangedIssueKeysRule changedIssueKeys = new MutableChangedIssueKeysRule();
 
   @Test
   public void call_indexers() {
+    changedIssueKeys.add("ISSUE_KEY");
     IssueIndexer issueIndexer = mock(IssueIndexer.class);
-    IndexIssuesStep underTest = new IndexIssuesStep(issueIndexer, treeRootHolder);
+    IndexIssuesStep underTest = new IndexIssuesStep(issueIndexer, changedIssueKeys);
 
     underTest.execute();
 
-    verify(issueIndexer).index(PROJECT_UUID);
+    verify(issueIndexer).index(singleton("ISSUE_KEY"));
   }
 }
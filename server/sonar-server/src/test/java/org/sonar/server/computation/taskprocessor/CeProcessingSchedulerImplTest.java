@@ -65,7 +65,7 @@ public class CeProcessingSchedulerImplTest {
 
   private CeWorkerCallable ceWorkerRunnable = mock(CeWorkerCallable.class);
   private StubCeProcessingSchedulerExecutorService processingExecutorService = new StubCeProcessingSchedulerExecutorService();
-  private SchedulerCall regularDelayedPoll = new SchedulerCall(ceWorkerRunnable, 2000L, TimeUnit.MILLISECONDS);
+  private SchedulerCall regularDelayedPoll = SchedulerCall.delayedPolling(2000L, TimeUnit.MILLISECONDS);
   private SchedulerCall notDelayedPoll = new SchedulerCall(ceWorkerRunnable);
 
   private CeProcessingSchedulerImpl underTest = new CeProcessingSchedulerImpl(ceConfiguration, processingExecutorService, ceWorkerRunnable);
@@ -78,8 +78,9 @@ public class CeProcessingSchedulerImplTest {
 
     startSchedulingAndRun();
 
-    assertThat(processingExecutorService.getSchedulerCalls()).containsOnly(
+    assertThat(processingExecutorService.getSchedulerCalls()).containsExactly(
       regularDelayedPoll,
+      notDelayedPoll,
       notDelayedPoll
       );
   }
@@ -94,6 +95,7 @@ public class CeProcessingSchedulerImplTest {
 
     assertThat(processingExecutorService.getSchedulerCalls()).containsExactly(
       regularDelayedPoll,
+      notDelayedPoll,
       notDelayedPoll
       );
   }
@@ -108,7 +110,9 @@ public class CeProcessingSchedulerImplTest {
 
     assertThat(processingExecutorService.getSchedulerCalls()).containsExactly(
       regularDelayedPoll,
-      regularDelayedPoll
+      notDelayedPoll,
+      regularDelayedPoll,
+      notDelayedPoll
       );
   }
 
@@ -129,16 +133,22 @@ public class CeProcessingSchedulerImplTest {
     startSchedulingAndRun();
 
     assertThat(processingExecutorService.getSchedulerCalls()).containsExactly(
+      regularDelayedPoll,
+      notDelayedPoll,
+      notDelayedPoll,
+      notDelayedPoll,
       regularDelayedPoll,
       notDelayedPoll,
       notDelayedPoll,
       regularDelayedPoll,
       notDelayedPoll,
+      notDelayedPoll,
       regularDelayedPoll,
       notDelayedPoll,
       regularDelayedPoll,
+      notDelayedPoll,
       regularDelayedPoll,
-      regularDelayedPoll
+      notDelayedPoll
       );
   }
 
@@ -175,28 +185,53 @@ public class CeProcessingSchedulerImplTest {
     assertThat(cancelledTaskFutureCount).isEqualTo(1);
     assertThat(processingExecutorService.getSchedulerCalls()).containsExactly(
       regularDelayedPoll,
+      notDelayedPoll,
       regularDelayedPoll,
       notDelayedPoll,
+      notDelayedPoll,
       regularDelayedPoll
       );
   }
 
+  @Test
+  public void wakeUp_polls_immediately_and_cancels_delayed_polling() throws Exception {
+    when(ceWorkerRunnable.call())
+      .thenReturn(false)
+      .thenThrow(ERROR_TO_INTERRUPT_CHAINING);
+
+    underTest.startScheduling();
+    underTest.wakeUp();
+    processingExecutorService.runFutures();
+
+    assertThat(processingExecutorService.getSchedulerCalls()).containsExactly(
+      regularDelayedPoll,
+      notDelayedPoll,
+      regularDelayedPoll,
+      notDelayedPoll
+      );
+    verify(ceWorkerRunnable, times(2)).call();
+  }
+
+  @Test
+  public void wakeUp_does_nothing_if_scheduling_is_not_started() throws Exception {
+    underTest.wakeUp();
+
+    assertThat(processingExecutorService.getSchedulerCalls()).isEmpty();
+    verify(ceWorkerRunnable, times(0)).call();
+  }
+
   @Test
   public void when_workerCount_is_more_than_1_as_many_CeWorkerCallable_are_scheduled() throws InterruptedException {
     int workerCount = Math.abs(new Random().nextInt(10)) + 1;
 
     ceConfiguration.setWorkerCount(workerCount);
 
-    ListenableScheduledFuture listenableScheduledFuture = mock(ListenableScheduledFuture.class);
     CeProcessingSchedulerExecutorService processingExecutorService = mock(CeProcessingSchedulerExecutorService.class);
     CeProcessingSchedulerImpl underTest = new CeProcessingSchedulerImpl(ceConfiguration, processingExecutorService, ceWorkerRunnable);
-    when(processingExecutorService.schedule(ceWorkerRunnable, ceConfiguration.getQueuePollingDelay(), MILLISECONDS))
-        .thenReturn(listenableScheduledFuture);
 
     underTest.startScheduling();
 
-    verify(processingExecutorService, times(workerCount)).schedule(ceWorkerRunnable, ceConfiguration.getQueuePollingDelay(), MILLISECONDS);
-    verify(listenableScheduledFuture, times(workerCount)).addListener(any(Runnable.class), eq(processingExecutorService));
+    verify(processingExecutorService, times(workerCount)).schedule(any(Runnable.class), eq(ceConfiguration.getQueuePollingDelay()), eq(MILLISECONDS));
   }
 
   private void startSchedulingAndRun() throws ExecutionException, InterruptedException {
@@ -249,13 +284,14 @@ public class CeProcessingSchedulerImplTest {
       throw new UnsupportedOperationException("stop() not implemented");
     }
 
-    // ////////////// delegated methods ////////////////
-
     @Override
     public ListenableScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+      this.schedulerCalls.add(SchedulerCall.delayedPolling(delay, unit));
       return delegate.schedule(command, delay, unit);
     }
 
+    // ////////////// delegated methods ////////////////
+
     @Override
     public ListenableScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
       return delegate.scheduleAtFixedRate(command, initialDelay, period, unit);
@@ -492,15 +528,21 @@ public class CeProcessingSchedulerImplTest {
   }
 
   /**
-   * Used to log parameters of calls to {@link CeProcessingSchedulerExecutorService#schedule(Callable, long, TimeUnit)}
+   * Used to log parameters of calls to {@link CeProcessingSchedulerExecutorService#schedule(Runnable, long, TimeUnit)},
+   * which is used to delay polling, and {@link CeProcessingSchedulerExecutorService#submit(Callable)}
    */
   @Immutable
   private static final class SchedulerCall {
+    @Nullable
     private final Callable<?> callable;
     private final long delay;
     private final TimeUnit unit;
 
-    private SchedulerCall(Callable<?> callable, long delay, TimeUnit unit) {
+    private static SchedulerCall delayedPolling(long delay, TimeUnit unit) {
+      return new SchedulerCall(null, delay, unit);
+    }
+
+    private SchedulerCall(@Nullable Callable<?> callable, long delay, TimeUnit unit) {
       this.callable = callable;
       this.delay = delay;
       this.unit = unit;
@@ -0,0 +1,105 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2016 SonarSource SA
+ * mailto:contact AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.taskprocessor;
+
+import java.io.File;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.sonar.api.config.Settings;
+import org.sonar.process.DefaultProcessCommands;
+import org.sonar.process.ProcessId;
+
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.sonar.process.ProcessEntryPoint.PROPERTY_SHARED_PATH;
+
+public class CeTasksSubmittedWatcherTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private Settings settings = new Settings();
+  private CeProcessingScheduler processingScheduler = mock(CeProcessingScheduler.class);
+  private ScheduledExecutorService executorService = mock(ScheduledExecutorService.class);
+  // the scheduled task is run by the test only, never by a background thread
+  private CeTasksSubmittedWatcher underTest = new CeTasksSubmittedWatcher(settings, processingScheduler) {
+    @Override
+    ScheduledExecutorService createExecutorService() {
+      return executorService;
+    }
+  };
+
+  @After
+  public void tearDown() {
+    underTest.stop();
+  }
+
+  @Test
+  public void wake_up_workers_when_tasks_are_submitted() throws Exception {
+    File sharedDir = temp.newFolder();
+    settings.setProperty(PROPERTY_SHARED_PATH, sharedDir.getAbsolutePath());
+    underTest.start();
+    Runnable watch = scheduledWatch();
+
+    watch.run();
+    verifyZeroInteractions(processingScheduler);
+
+    try (DefaultProcessCommands webProcessCommands = DefaultProcessCommands.secondary(sharedDir, ProcessId.COMPUTE_ENGINE.getIpcIndex())) {
+      webProcessCommands.notifyTasksSubmitted();
+    }
+    watch.run();
+    verify(processingScheduler).wakeUp();
+
+    // no new submission
+    watch.run();
+    verify(processingScheduler).wakeUp();
+  }
+
+  @Test
+  public void stop_executor_service() throws Exception {
+    settings.setProperty(PROPERTY_SHARED_PATH, temp.newFolder().getAbsolutePath());
+    underTest.start();
+
+    underTest.stop();
+
+    verify(executorService).shutdownNow();
+  }
+
+  @Test
+  public void do_nothing_if_shared_path_is_not_defined() {
+    underTest.start();
+
+    verifyZeroInteractions(processingScheduler, executorService);
+  }
+
+  private Runnable scheduledWatch() {
+    ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(executorService).scheduleWithFixedDelay(runnableCaptor.capture(), anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS));
+    return runnableCaptor.getValue();
+  }
+}
@@ -20,13 +20,29 @@
 package org.sonar.server.es;
 
 import com.google.common.collect.ImmutableMap;
+import java.util.List;
+import org.elasticsearch.action.Action;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.ActionRequestBuilder;
+import org.elasticsearch.action.ActionResponse;
+import org.elasticsearch.action.ActionWriteResponse;
 import org.elasticsearch.action.admin.indices.settings.get.GetSettingsResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.FilterClient;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.junit.Rule;
 import org.junit.Test;
+import org.sonar.api.config.Settings;
+import org.sonar.api.utils.log.LogTester;
+import org.sonar.api.utils.log.LoggerLevel;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -35,6 +51,9 @@ public class BulkIndexerTest {
   @Rule
   public EsTester esTester = new EsTester(new FakeIndexDefinition().setReplicas(1));
 
+  @Rule
+  public LogTester logTester = new LogTester();
+
   @Test
   public void index_nothing() {
     BulkIndexer indexer = new BulkIndexer(esTester.client(), FakeIndexDefinition.INDEX);
@@ -81,6 +100,12 @@ public class BulkIndexerTest {
 
     // replicas are re-enabled
     assertThat(replicas()).isEqualTo(1);
+
+    assertThat(logTester.logs(LoggerLevel.INFO)).hasSize(1);
+    assertThat(logTester.logs(LoggerLevel.INFO).get(0))
+      .startsWith("Bulk indexing of [fakes] done | time=")
+      .contains("| docs=10 |")
+      .endsWith("| rejections=0");
   }
 
   @Test
@@ -117,6 +142,70 @@ public class BulkIndexerTest {
     assertThat(count()).isEqualTo(2);
   }
 
+  @Test
+  public void resend_bulk_request_rejected_by_elasticsearch() {
+    logTester.setLevel(LoggerLevel.DEBUG);
+    RejectingClient rejectingClient = new RejectingClient(esTester.client().nativeClient()).rejectBulkRequests(1);
+    BulkIndexer indexer = new BulkIndexer(new EsClient(new Settings(), rejectingClient), FakeIndexDefinition.INDEX)
+      .setBackoffMillis(1L, 8L);
+    indexer.start();
+    indexer.add(newIndexRequest(42));
+    indexer.add(newIndexRequest(78));
+    indexer.stop();
+
+    assertThat(count()).isEqualTo(2);
+    assertThat(rejectingClient.bulkRequests).isEqualTo(2);
+    assertThat(logTester.logs(LoggerLevel.DEBUG)).contains("Elasticsearch rejected bulk requests on [fakes], retrying in 1ms");
+    assertThat(statisticsLog()).contains("| docs=2 |").endsWith("| rejections=2");
+    // resent requests are not counted twice
+    assertThat(statisticsLog()).contains("| bytes=" + sizeInBytes(newIndexRequest(42), newIndexRequest(78)) + " |");
+  }
+
+  @Test
+  public void resend_only_items_rejected_by_elasticsearch() {
+    logTester.setLevel(LoggerLevel.DEBUG);
+    RejectingClient rejectingClient = new RejectingClient(esTester.client().nativeClient()).rejectFirstItems(2);
+    BulkIndexer indexer = new BulkIndexer(new EsClient(new Settings(), rejectingClient), FakeIndexDefinition.INDEX)
+      .setBackoffMillis(1L, 8L);
+    indexer.start();
+    indexer.add(newIndexRequest(1));
+    indexer.add(newIndexRequest(2));
+    indexer.add(newIndexRequest(3));
+    indexer.stop();
+
+    assertThat(count()).isEqualTo(3);
+    assertThat(esTester.<Integer>getDocumentFieldValues(FakeIndexDefinition.INDEX, FakeIndexDefinition.TYPE, FakeIndexDefinition.INT_FIELD))
+      .containsOnly(1, 2, 3);
+    // the first item is rejected by the initial request and by the first retry
+    assertThat(rejectingClient.bulkRequests).isEqualTo(3);
+    assertThat(statisticsLog()).contains("| docs=3 |").endsWith("| rejections=2");
+    assertThat(statisticsLog()).contains("| bytes=" + sizeInBytes(newIndexRequest(1), newIndexRequest(2), newIndexRequest(3)) + " |");
+  }
+
+  @Test
+  public void backoff_doubles_until_max_and_stop_gives_up_after_max_retries() {
+    logTester.setLevel(LoggerLevel.DEBUG);
+    RejectingClient rejectingClient = new RejectingClient(esTester.client().nativeClient()).rejectBulkRequests(Integer.MAX_VALUE);
+    BulkIndexer indexer = new BulkIndexer(new EsClient(new Settings(), rejectingClient), FakeIndexDefinition.INDEX)
+      .setBackoffMillis(1L, 4L);
+    indexer.start();
+    indexer.add(newIndexRequest(42));
+    indexer.add(newIndexRequest(78));
+    indexer.stop();
+
+    assertThat(count()).isEqualTo(0);
+    // initial request then 10 retries
+    assertThat(rejectingClient.bulkRequests).isEqualTo(11);
+    assertThat(logTester.logs(LoggerLevel.DEBUG)).containsSubsequence(
+      "Elasticsearch rejected bulk requests on [fakes], retrying in 1ms",
+      "Elasticsearch rejected bulk requests on [fakes], retrying in 2ms",
+      "Elasticsearch rejected bulk requests on [fakes], retrying in 4ms",
+      "Elasticsearch rejected bulk requests on [fakes], retrying in 4ms");
+    assertThat(logTester.logs(LoggerLevel.ERROR))
+      .containsExactly("Fail to index 2 documents in [fakes], requests are still rejected by Elasticsearch");
+    assertThat(statisticsLog()).contains("| docs=0 |").endsWith("| rejections=22");
+  }
+
   private long count() {
     return esTester.countDocuments("fakes", "fake");
   }
@@ -127,8 +216,92 @@ public class BulkIndexerTest {
     return Integer.parseInt(settingsResp.getSetting(FakeIndexDefinition.INDEX, IndexMetaData.SETTING_NUMBER_OF_REPLICAS));
   }
 
+  private static long sizeInBytes(IndexRequest... requests) {
+    BulkRequest bulkRequest = new BulkRequest();
+    for (IndexRequest request : requests) {
+      bulkRequest.add(request);
+    }
+    return bulkRequest.estimatedSizeInBytes();
+  }
+
+  private String statisticsLog() {
+    for (String log : logTester.logs()) {
+      if (log.startsWith("Bulk indexing of [fakes] done")) {
+        return log;
+      }
+    }
+    throw new AssertionError("No statistics logged");
+  }
+
   private IndexRequest newIndexRequest(int intField) {
     return new IndexRequest(FakeIndexDefinition.INDEX, FakeIndexDefinition.TYPE)
       .source(ImmutableMap.of(FakeIndexDefinition.INT_FIELD, intField));
   }
+
+  /**
+   * Simulates an Elasticsearch cluster whose bulk queue is full
+   */
+  private static class RejectingClient extends FilterClient {
+    private int bulkRequestsToReject = 0;
+    private int itemsToReject = 0;
+    private int bulkRequests = 0;
+
+    RejectingClient(Client in) {
+      super(in);
+    }
+
+    RejectingClient rejectBulkRequests(int count) {
+      this.bulkRequestsToReject = count;
+      return this;
+    }
+
+    /**
+     * The first item of each bulk request is rejected, until {@code count} items are rejected
+     */
+    RejectingClient rejectFirstItems(int count) {
+      this.itemsToReject = count;
+      return this;
+    }
+
+    @Override
+    protected <Request extends ActionRequest, Response extends ActionResponse, RequestBuilder extends ActionRequestBuilder<Request, Response, RequestBuilder>> void doExecute(
+      Action<Request, Response, RequestBuilder> action, Request request, ActionListener<Response> listener) {
+      if (!(request instanceof BulkRequest)) {
+        super.doExecute(action, request, listener);
+        return;
+      }
+      synchronized (this) {
+        bulkRequests++;
+        if (bulkRequestsToReject > 0) {
+          bulkRequestsToReject--;
+          listener.onFailure(new EsRejectedExecutionException("bulk queue is full"));
+          return;
+        }
+        if (itemsToReject > 0) {
+          itemsToReject--;
+          listener.onResponse((Response) rejectFirstItem((BulkRequest) request));
+          return;
+        }
+      }
+      super.doExecute(action, request, listener);
+    }
+
+    private BulkResponse rejectFirstItem(BulkRequest request) {
+      List<ActionRequest> requests = request.requests();
+      BulkRequest accepted = new BulkRequest();
+      for (ActionRequest item : requests.subList(1, requests.size())) {
+        accepted.add(item);
+      }
+      BulkItemResponse[] items = new BulkItemResponse[requests.size()];
+      items[0] = new BulkItemResponse(0, "index", new BulkItemResponse.Failure(FakeIndexDefinition.INDEX, FakeIndexDefinition.TYPE, null,
+        new EsRejectedExecutionException("bulk queue is full")));
+      if (accepted.numberOfActions() > 0) {
+        BulkItemResponse[] acceptedItems = in().bulk(accepted).actionGet().getItems();
+        for (int i = 0; i < acceptedItems.length; i++) {
+          items[i + 1] = new BulkItemResponse(i + 1, acceptedItems[i].getOpType(), acceptedItems[i].<ActionWriteResponse>getResponse());
+        }
+      }
+      return new BulkResponse(items, 0L);
+    }
+  }
 }
@@ -0,0 +1,87 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2016 SonarSource SA
+ * mailto:contact AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.es;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.sonar.api.config.Settings;
+import org.sonar.server.activity.index.ActivityIndexer;
+import org.sonar.server.issue.index.IssueAuthorizationIndexer;
+import org.sonar.server.issue.index.IssueIndexer;
+import org.sonar.server.test.index.TestIndexer;
+import org.sonar.server.user.index.UserIndexer;
+import org.sonar.server.view.index.ViewIndexer;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class IndexerStartupTaskTest {
+
+  TestIndexer testIndexer = mockIndexer(TestIndexer.class);
+  IssueAuthorizationIndexer issueAuthorizationIndexer = mockIndexer(IssueAuthorizationIndexer.class);
+  IssueIndexer issueIndexer = mockIndexer(IssueIndexer.class);
+  UserIndexer userIndexer = mockIndexer(UserIndexer.class);
+  ViewIndexer viewIndexer = mockIndexer(ViewIndexer.class);
+  ActivityIndexer activityIndexer = mockIndexer(ActivityIndexer.class);
+  Settings settings = new Settings();
+
+  IndexerStartupTask underTest = new IndexerStartupTask(testIndexer, issueAuthorizationIndexer, issueIndexer, userIndexer, viewIndexer,
+    activityIndexer, settings);
+
+  @Test
+  public void enable_and_index_all_indexers() {
+    underTest.execute();
+
+    verify(testIndexer).index();
+    verify(userIndexer).index();
+    verify(viewIndexer).index();
+    verify(activityIndexer).index();
+    InOrder issueIndexing = inOrder(issueAuthorizationIndexer, issueIndexer);
+    issueIndexing.verify(issueAuthorizationIndexer).setEnabled(true);
+    issueIndexing.verify(issueAuthorizationIndexer).index();
+    issueIndexing.verify(issueIndexer).setEnabled(true);
+    issueIndexing.verify(issueIndexer).index();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void propagate_failure_of_an_indexer() {
+    when(userIndexer.setEnabled(true)).thenThrow(new IllegalStateException("Fail to index users"));
+
+    underTest.execute();
+  }
+
+  @Test
+  public void do_nothing_if_indexes_are_disabled() {
+    settings.setProperty("sonar.internal.es.disableIndexes", true);
+
+    underTest.execute();
+
+    verifyZeroInteractions(testIndexer, issueAuthorizationIndexer, issueIndexer, userIndexer, viewIndexer, activityIndexer);
+  }
+
+  private static <T extends BaseIndexer> T mockIndexer(Class<T> indexerClass) {
+    T indexer = mock(indexerClass);
+    when(indexer.setEnabled(true)).thenReturn(indexer);
+    return indexer;
+  }
+}
@@ -27,6 +27,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.assertj.core.api.Fail;
 import org.elasticsearch.test.ESTestCase;
@@ -1144,6 +1145,29 @@ public class IssueIndexTest {
     assertThat(underTest.search(IssueQuery.builder(userSessionRule).projectUuids(newArrayList(project3.uuid())).build(), new SearchOptions()).getDocs()).isEmpty();
   }
 
+  @Test
+  public void authorized_issues_on_several_groups_including_anyone() {
+    ComponentDto project1 = ComponentTesting.newProjectDto().setKey("project1");
+    ComponentDto project2 = ComponentTesting.newProjectDto().setKey("project2");
+    ComponentDto project3 = ComponentTesting.newProjectDto().setKey("project3");
+    ComponentDto project4 = ComponentTesting.newProjectDto().setKey("project4");
+    ComponentDto project5 = ComponentTesting.newProjectDto().setKey("project5");
+
+    indexIssue(IssueTesting.newDoc("ISSUE1", ComponentTesting.newFileDto(project1)), "sonar-users", null);
+    indexIssue(IssueTesting.newDoc("ISSUE2", ComponentTesting.newFileDto(project2)), "sonar-admins", null);
+    indexIssue(IssueTesting.newDoc("ISSUE3", ComponentTesting.newFileDto(project3)), DefaultGroups.ANYONE, null);
+    indexIssue(IssueTesting.newDoc("ISSUE4", ComponentTesting.newFileDto(project4)), "another group", null);
+    indexIssue(IssueTesting.newDoc("ISSUE5", ComponentTesting.newFileDto(project5)), null, null);
+
+    userSessionRule.login().setUserGroups("sonar-users", "sonar-admins", DefaultGroups.ANYONE);
+    List<IssueDoc> docs = underTest.search(IssueQuery.builder(userSessionRule).build(), new SearchOptions()).getDocs();
+    assertThat(docs.stream().map(IssueDoc::key).collect(Collectors.toList())).containsOnly("ISSUE1", "ISSUE2", "ISSUE3");
+
+    userSessionRule.anonymous().setUserGroups(DefaultGroups.ANYONE);
+    docs = underTest.search(IssueQuery.builder(userSessionRule).build(), new SearchOptions()).getDocs();
+    assertThat(docs.stream().map(IssueDoc::key).collect(Collectors.toList())).containsOnly("ISSUE3");
+  }
+
   @Test
   public void authorized_issues_on_user() {
     ComponentDto project1 = ComponentTesting.newProjectDto().setKey("project1");
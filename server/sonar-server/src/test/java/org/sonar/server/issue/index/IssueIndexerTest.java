@@ -117,6 +117,26 @@ public class IssueIndexerTest {
     verifyIssueKeys("ABCDE");
   }
 
+  @Test
+  public void index_issues_by_keys() {
+    dbTester.prepareDbUnit(getClass(), "index_project.xml");
+
+    IssueIndexer indexer = createIndexer();
+    indexer.index(asList("EDCBA", "UNKNOWN"));
+
+    verifyIssueKeys("EDCBA");
+  }
+
+  @Test
+  public void index_nothing_when_no_issue_keys() {
+    dbTester.prepareDbUnit(getClass(), "index_project.xml");
+
+    IssueIndexer indexer = createIndexer();
+    indexer.index(Collections.<String>emptyList());
+
+    assertThat(esTester.countDocuments("issues", "issue")).isZero();
+  }
+
   @Test
   public void delete_issues_by_keys() throws Exception {
     addIssue("P1", "Issue1");
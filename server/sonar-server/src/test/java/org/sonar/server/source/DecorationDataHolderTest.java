@@ -71,4 +71,19 @@ public class DecorationDataHolderTest {
     assertThat(offsets.get(7)).isEqualTo(130);
     assertThat(offsets.get(8)).isEqualTo(145);
   }
+
+  @Test
+  public void should_sort_rules_loaded_out_of_order() {
+    DecorationDataHolder holder = new DecorationDataHolder();
+    holder.loadSyntaxHighlightingData("69,75,k;0,52,cppd;54,67,a;0,8,k;");
+    holder.loadLineSymbolReferences("60,62,1;");
+
+    assertThat(holder.getOpeningTagsEntries()).containsExactly(
+      new OpeningHtmlTag(0, "cppd"),
+      new OpeningHtmlTag(0, "k"),
+      new OpeningHtmlTag(54, "a"),
+      new OpeningHtmlTag(60, "sym-1 sym"),
+      new OpeningHtmlTag(69, "k"));
+    assertThat(holder.getClosingTagsOffsets()).containsExactly(8, 52, 62, 67, 75);
+  }
 }
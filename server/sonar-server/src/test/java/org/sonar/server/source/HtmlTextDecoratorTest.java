@@ -400,4 +400,19 @@ public class HtmlTextDecoratorTest {
       "<span class=\"cppd\"> *   &lt;li&gt;Create a javadoc generator&lt;/li&gt;</span>"
     );
   }
+
+  @Test
+  public void should_decorate_overlapping_ranges_loaded_out_of_order() {
+
+    String assignment = "int a = b < c & d;";
+
+    DecorationDataHolder decorationData = new DecorationDataHolder();
+    decorationData.loadSyntaxHighlightingData("8,17,cppd;0,3,k;8,9,k;");
+
+    HtmlTextDecorator htmlTextDecorator = new HtmlTextDecorator();
+    List<String> htmlOutput = htmlTextDecorator.decorateTextWithHtml(assignment, decorationData);
+
+    assertThat(htmlOutput).containsExactly(
+      "<span class=\"k\">int</span> a = <span class=\"cppd\"><span class=\"k\">b</span> &lt; c &amp; d</span>;");
+  }
 }
@@ -35,6 +35,8 @@ import org.sonar.server.source.index.FileSourceTesting;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class SourceServiceTest {
@@ -90,6 +92,26 @@ public class SourceServiceTest {
     assertThat(lines).containsExactly("HTML_5", "HTML_6", "HTML_7");
   }
 
+  @Test
+  public void decorate_lines_as_html_once_until_data_hash_changes() throws Exception {
+    String fileUuid = "HASHED_FILE_UUID";
+    dbTester.getDbClient().fileSourceDao().insert(new FileSourceDto()
+      .setFileUuid(fileUuid).setProjectUuid("PROJECT_UUID").setDataHash("HASH_1")
+      .setSourceData(FileSourceTesting.newFakeData(10).build()));
+    when(htmlDecorator.getDecoratedSourceAsHtml("SOURCE_5", "HIGHLIGHTING_5", "SYMBOLS_5")).thenReturn("HTML_5");
+
+    assertThat(underTest.getLinesAsHtml(dbTester.getSession(), fileUuid, 5, 5).get()).containsExactly("HTML_5");
+    assertThat(underTest.getLinesAsHtml(dbTester.getSession(), fileUuid, 5, 5).get()).containsExactly("HTML_5");
+    verify(htmlDecorator, times(1)).getDecoratedSourceAsHtml("SOURCE_5", "HIGHLIGHTING_5", "SYMBOLS_5");
+
+    FileSourceDto dto = dbTester.getDbClient().fileSourceDao().selectSourceByFileUuid(dbTester.getSession(), fileUuid);
+    dbTester.getDbClient().fileSourceDao().update(dbTester.getSession(), dto.setDataHash("HASH_2"));
+    dbTester.getSession().commit();
+
+    assertThat(underTest.getLinesAsHtml(dbTester.getSession(), fileUuid, 5, 5).get()).containsExactly("HTML_5");
+    verify(htmlDecorator, times(2)).getDecoratedSourceAsHtml("SOURCE_5", "HIGHLIGHTING_5", "SYMBOLS_5");
+  }
+
   @Test
   public void getLines_fails_if_range_starts_at_zero() {
     expectedException.expect(IllegalArgumentException.class);
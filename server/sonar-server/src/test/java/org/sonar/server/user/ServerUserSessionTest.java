@@ -20,6 +20,10 @@
 package org.sonar.server.user;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.sonar.core.permission.GlobalPermissions.DASHBOARD_SHARING;
 import static org.sonar.core.permission.GlobalPermissions.QUALITY_PROFILE_ADMIN;
 import static org.sonar.core.permission.GlobalPermissions.SYSTEM_ADMIN;
@@ -41,6 +45,7 @@ import org.sonar.db.DbTester;
 import org.sonar.db.component.ComponentDbTester;
 import org.sonar.db.component.ComponentDto;
 import org.sonar.db.component.ComponentTesting;
+import org.sonar.db.component.ResourceDao;
 import org.sonar.db.user.GroupRoleDto;
 import org.sonar.db.user.UserDto;
 import org.sonar.db.user.UserPermissionDto;
@@ -264,6 +269,42 @@ public class ServerUserSessionTest {
     assertThat(session.hasComponentPermission(UserRole.ADMIN, FILE_KEY)).isFalse();
   }
 
+  @Test
+  public void load_root_project_of_component_key_only_once() {
+    addProjectPermissions(project, UserRole.USER);
+    ResourceDao resourceDao = spy(dbClient.resourceDao());
+    UserSession session = createForUser(dbClientWithResourceDao(resourceDao), userDto);
+
+    // denied permission first
+    assertThat(session.hasComponentPermission(UserRole.ADMIN, FILE_KEY)).isFalse();
+    assertThat(session.hasComponentPermission(UserRole.USER, FILE_KEY)).isTrue();
+    assertThat(session.hasComponentPermission(UserRole.CODEVIEWER, FILE_KEY)).isFalse();
+    assertThat(session.hasComponentPermission(UserRole.USER, FILE_KEY)).isTrue();
+
+    verify(resourceDao, times(1)).getRootProjectByComponentKey(FILE_KEY);
+  }
+
+  @Test
+  public void load_root_project_of_component_uuid_only_once() {
+    addProjectPermissions(project, UserRole.USER);
+    ResourceDao resourceDao = spy(dbClient.resourceDao());
+    UserSession session = createForUser(dbClientWithResourceDao(resourceDao), userDto);
+
+    // denied permission first
+    assertThat(session.hasComponentUuidPermission(UserRole.ADMIN, FILE_UUID)).isFalse();
+    assertThat(session.hasComponentUuidPermission(UserRole.USER, FILE_UUID)).isTrue();
+    assertThat(session.hasComponentUuidPermission(UserRole.CODEVIEWER, FILE_UUID)).isFalse();
+    assertThat(session.hasComponentUuidPermission(UserRole.USER, FILE_UUID)).isTrue();
+
+    verify(resourceDao, times(1)).selectResource(FILE_UUID);
+  }
+
+  private DbClient dbClientWithResourceDao(ResourceDao resourceDao) {
+    DbClient spiedDbClient = spy(dbClient);
+    doReturn(resourceDao).when(spiedDbClient).resourceDao();
+    return spiedDbClient;
+  }
+
   private ServerUserSession newUserSession(UserDto userDto) {
     return createForUser(dbClient, userDto);
   }
@@ -19,6 +19,7 @@
  */
 package org.sonar.server.util.cache;
 
+import org.apache.commons.lang.StringUtils;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -52,6 +53,28 @@ public class DiskCacheTest {
     }
   }
 
+  @Test
+  public void write_and_read_more_than_buffer_size_with_multiple_appenders() throws Exception {
+    DiskCache<String> cache = new DiskCache<>(temp.newFile(), System2.INSTANCE);
+    String value = StringUtils.repeat("a", DiskCache.BUFFER_SIZE / 10);
+    for (int appender = 0; appender < 3; appender++) {
+      DiskCache<String>.DiskAppender diskAppender = cache.newAppender();
+      for (int i = 0; i < 20; i++) {
+        diskAppender.append(value + i);
+      }
+      diskAppender.close();
+    }
+
+    try (CloseableIterator<String> traverse = cache.traverse()) {
+      int count = 0;
+      while (traverse.hasNext()) {
+        assertThat(traverse.next()).isEqualTo(value + (count % 20));
+        count++;
+      }
+      assertThat(count).isEqualTo(60);
+    }
+  }
+
   @Test
   public void fail_if_file_is_not_writable() throws Exception {
     try {
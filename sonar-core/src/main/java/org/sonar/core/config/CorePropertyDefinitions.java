@@ -39,6 +39,7 @@ public class CorePropertyDefinitions {
   public static final String TIMEMACHINE_MODE_VERSION = "version";
   public static final String TIMEMACHINE_MODE_DAYS = "days";
   public static final String TIMEMACHINE_MODE_PREVIOUS_VERSION = "previous_version";
+  public static final String CPD_THREADS = "sonar.cpd.threads";
 
   private static final String TIMEMACHINE_DEFAULT_PERIOD_1 = TIMEMACHINE_MODE_PREVIOUS_VERSION;
   private static final String TIMEMACHINE_DEFAULT_PERIOD_2 = TIMEMACHINE_MODE_PREVIOUS_ANALYSIS;
@@ -288,6 +289,15 @@ public class CorePropertyDefinitions {
         .category(CoreProperties.CATEGORY_EXCLUSIONS)
         .subCategory(CoreProperties.SUBCATEGORY_DUPLICATIONS_EXCLUSIONS)
         .multiValues(true)
+        .build(),
+      PropertyDefinition.builder(CPD_THREADS)
+        .name("Duplication Detection Threads")
+        .description("Number of threads used by the scanner to detect duplications at the end of the analysis. "
+          + "By default, one thread per available processor is used.")
+        .onQualifiers(Qualifiers.PROJECT)
+        .category(CoreProperties.CATEGORY_GENERAL)
+        .subCategory(CoreProperties.SUBCATEGORY_DUPLICATIONS)
+        .type(PropertyType.INTEGER)
         .build()));
     return defs;
   }
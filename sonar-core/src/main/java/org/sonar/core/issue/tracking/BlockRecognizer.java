@@ -20,8 +20,8 @@
 package org.sonar.core.issue.tracking;
 
 import com.google.common.collect.LinkedHashMultimap;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -76,14 +76,18 @@ class BlockRecognizer<RAW extends Trackable, BASE extends Trackable> {
     }
 
     // Check if remaining number of lines exceeds threshold. It avoids processing too many combinations.
-    if (basesByLine.keySet().size() * rawsByLine.keySet().size() >= 250_000) {
+    // Computed in long so that it can not overflow. Once checked, it is also a safe capacity for the list of pairs.
+    long combinations = (long) basesByLine.keySet().size() * rawsByLine.keySet().size();
+    if (combinations >= 250_000) {
       return;
     }
 
-    List<LinePair> possibleLinePairs = Lists.newArrayList();
+    LineHashSequence baseLineHashSequence = baseInput.getLineHashSequence();
+    LineHashSequence rawLineHashSequence = rawInput.getLineHashSequence();
+    List<LinePair> possibleLinePairs = new ArrayList<>((int) combinations);
     for (Integer baseLine : basesByLine.keySet()) {
       for (Integer rawLine : rawsByLine.keySet()) {
-        int weight = lengthOfMaximalBlock(baseInput.getLineHashSequence(), baseLine, rawInput.getLineHashSequence(), rawLine);
+        int weight = lengthOfMaximalBlock(baseLineHashSequence, baseLine, rawLineHashSequence, rawLine);
         possibleLinePairs.add(new LinePair(baseLine, rawLine, weight));
       }
     }
@@ -19,9 +19,11 @@
  */
 package org.sonar.core.issue.tracking;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
-import java.util.Collection;
+import com.google.common.collect.Iterables;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import javax.annotation.Nonnull;
 import org.apache.commons.lang.StringUtils;
@@ -62,24 +64,29 @@ public class Tracker<RAW extends Trackable, BASE extends Trackable> {
   }
 
   private void match(Tracking<RAW, BASE> tracking, SearchKeyFactory factory) {
-    if (tracking.isComplete()) {
+    if (tracking.isComplete() || Iterables.isEmpty(tracking.getUnmatchedBases())) {
       return;
     }
 
-    Multimap<SearchKey, BASE> baseSearch = ArrayListMultimap.create();
+    // Candidates are consumed from the head of their queue, so that removing a matched base
+    // does not shift the remaining ones when many issues share the same key (generated code)
+    Map<SearchKey, Deque<BASE>> baseSearch = new HashMap<>();
     for (BASE base : tracking.getUnmatchedBases()) {
-      baseSearch.put(factory.create(base), base);
+      SearchKey baseKey = factory.create(base);
+      Deque<BASE> bases = baseSearch.get(baseKey);
+      if (bases == null) {
+        bases = new ArrayDeque<>();
+        baseSearch.put(baseKey, bases);
+      }
+      bases.addLast(base);
     }
 
     for (RAW raw : tracking.getUnmatchedRaws()) {
-      SearchKey rawKey = factory.create(raw);
-      Collection<BASE> bases = baseSearch.get(rawKey);
-      if (!bases.isEmpty()) {
+      Deque<BASE> bases = baseSearch.get(factory.create(raw));
+      if (bases != null && !bases.isEmpty()) {
         // TODO taking the first one. Could be improved if there are more than 2 issues on the same line.
         // Message could be checked to take the best one.
-        BASE match = bases.iterator().next();
-        tracking.match(raw, match);
-        baseSearch.remove(rawKey, match);
+        tracking.match(raw, bases.pollFirst());
       }
     }
   }
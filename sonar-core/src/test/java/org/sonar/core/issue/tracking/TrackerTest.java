@@ -381,6 +381,27 @@ public class TrackerTest {
     assertThat(tracking.baseFor(raw1)).isEqualTo(base1);
   }
 
+  @Test
+  public void match_issues_sharing_the_same_key_in_order() {
+    FakeInput baseInput = new FakeInput("H1");
+    List<Issue> bases = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      bases.add(baseInput.createIssueOnLine(1, RULE_SYSTEM_PRINT, "msg"));
+    }
+
+    FakeInput rawInput = new FakeInput("H1");
+    List<Issue> raws = new ArrayList<>();
+    for (int i = 0; i < 999; i++) {
+      raws.add(rawInput.createIssueOnLine(1, RULE_SYSTEM_PRINT, "msg"));
+    }
+
+    Tracking<Issue, Issue> tracking = tracker.track(rawInput, baseInput);
+    for (int i = 0; i < raws.size(); i++) {
+      assertThat(tracking.baseFor(raws.get(i))).isSameAs(bases.get(i));
+    }
+    assertThat(tracking.getUnmatchedBases()).containsExactly(bases.get(999));
+  }
+
   private static class Issue implements Trackable {
     private final RuleKey ruleKey;
     private final Integer line;
@@ -20,7 +20,9 @@
 package org.sonar.db.ce;
 
 import com.google.common.base.Optional;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import javax.annotation.Nullable;
 import org.apache.ibatis.session.RowBounds;
 import org.sonar.api.utils.System2;
@@ -33,7 +35,7 @@ import static org.sonar.db.ce.CeQueueDto.Status.PENDING;
 
 public class CeQueueDao implements Dao {
 
-  private static final RowBounds ONE_ROW_LIMIT = new RowBounds(0, 1);
+  private static final RowBounds PEEK_CANDIDATES_LIMIT = new RowBounds(0, 10);
 
   private final System2 system2;
 
@@ -108,14 +110,27 @@ public class CeQueueDao implements Dao {
     return mapper(dbSession).countByStatusAndComponentUuid(status, componentUuid);
   }
 
+  /**
+   * Moves to status IN_PROGRESS the oldest pending task whose component has no other task in progress.
+   * <p>
+   * When several workers peek at the same time, the oldest eligible task may be taken by another worker. In this
+   * case the next eligible candidates are tried instead of returning nothing, so that the worker does not wait for
+   * the next polling while tasks of other projects are pending. Only the oldest pending task of each component
+   * is a candidate, which preserves the order of processing of the tasks of a given component.
+   */
   public Optional<CeQueueDto> peek(DbSession session) {
-    List<String> taskUuids = mapper(session).selectEligibleForPeek(ONE_ROW_LIMIT);
-    if (taskUuids.isEmpty()) {
-      return Optional.absent();
+    List<CeQueueDto> candidates = mapper(session).selectEligibleForPeek(PEEK_CANDIDATES_LIMIT);
+    Set<String> candidateComponentUuids = new HashSet<>();
+    for (CeQueueDto candidate : candidates) {
+      String componentUuid = candidate.getComponentUuid();
+      if (componentUuid == null || candidateComponentUuids.add(componentUuid)) {
+        Optional<CeQueueDto> peeked = tryToPeek(session, candidate.getUuid());
+        if (peeked.isPresent()) {
+          return peeked;
+        }
+      }
     }
-
-    String taskUuid = taskUuids.get(0);
-    return tryToPeek(session, taskUuid);
+    return Optional.absent();
   }
 
   private Optional<CeQueueDto> tryToPeek(DbSession session, String taskUuid) {
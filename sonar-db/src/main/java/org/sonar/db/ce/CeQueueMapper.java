@@ -35,7 +35,10 @@ public interface CeQueueMapper {
 
   int countByQuery(@Param("query") CeTaskQuery query);
 
-  List<String> selectEligibleForPeek(RowBounds rowBounds);
+  /**
+   * Only fields {@link CeQueueDto#getUuid()} and {@link CeQueueDto#getComponentUuid()} are loaded
+   */
+  List<CeQueueDto> selectEligibleForPeek(RowBounds rowBounds);
 
   @CheckForNull
   CeQueueDto selectByUuid(@Param("uuid") String uuid);
@@ -19,8 +19,11 @@
  */
 package org.sonar.db.source;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -38,6 +41,7 @@ import static java.lang.String.format;
 
 public class FileSourceDto {
 
+  private static final int LINE_SIZE_LIMIT = 64 << 20;
   private static final String SIZE_LIMIT_EXCEEDED_EXCEPTION_MESSAGE = "Protocol message was too large.  May be malicious.  " +
     "Use CodedInputStream.setSizeLimit() to increase the size limit.";
 
@@ -122,6 +126,54 @@ public class FileSourceDto {
     }
   }
 
+  /**
+   * Decompress and deserialize the lines of column BINARY_DATA until {@code count} lines greater than or equal
+   * to {@code from} are read. Following lines are neither decompressed nor deserialized.
+   */
+  public List<DbFileSources.Line> decodeSourceLines(byte[] binaryData, int from, int count) {
+    try {
+      return decodeRegularSourceLines(binaryData, from, count, LINE_SIZE_LIMIT);
+    } catch (IOException e) {
+      throw new IllegalStateException(
+        format("Fail to decompress and deserialize source data [id=%s,fileUuid=%s,projectUuid=%s]", id, fileUuid, projectUuid),
+        e);
+    }
+  }
+
+  @VisibleForTesting
+  static List<DbFileSources.Line> decodeRegularSourceLines(byte[] binaryData, int from, int count, int lineSizeLimit) throws IOException {
+    List<DbFileSources.Line> lines = new ArrayList<>();
+    try (LZ4BlockInputStream lz4Input = new LZ4BlockInputStream(new ByteArrayInputStream(binaryData))) {
+      CodedInputStream input = CodedInputStream.newInstance(lz4Input);
+      input.setSizeLimit(lineSizeLimit);
+      // lines are stored in ascending order, line N being the N-th one
+      int index = 0;
+      while (lines.size() < count) {
+        // lines are read one by one, so the limit applies to each line and not to the whole message
+        input.resetSizeCounter();
+        int tag = input.readTag();
+        if (tag == 0) {
+          break;
+        }
+        if (WireFormat.getTagFieldNumber(tag) != DbFileSources.Data.LINES_FIELD_NUMBER) {
+          if (!input.skipField(tag)) {
+            break;
+          }
+        } else if (index < from - 1) {
+          input.skipRawBytes(input.readRawVarint32());
+          index++;
+        } else {
+          DbFileSources.Line line = input.readMessage(DbFileSources.Line.parser(), ExtensionRegistryLite.getEmptyRegistry());
+          if (line.hasLine() && line.getLine() >= from) {
+            lines.add(line);
+          }
+          index++;
+        }
+      }
+    }
+    return lines;
+  }
+
   /**
    * Serialize and compress protobuf message {@link org.sonar.db.protobuf.DbFileSources.Data}
    * in the column BINARY_DATA.
@@ -212,6 +264,14 @@ public class FileSourceDto {
     return decodeSourceData(binaryData);
   }
 
+  /**
+   * At most {@code count} lines of the compressed protobuf message {@link org.sonar.db.protobuf.DbFileSources.Data},
+   * starting from line {@code from}.
+   */
+  public List<DbFileSources.Line> getSourceLines(int from, int count) {
+    return decodeSourceLines(binaryData, from, count);
+  }
+
   public FileSourceDto setSourceData(DbFileSources.Data data) {
     this.dataType = Type.SOURCE;
     this.binaryData = encodeSourceData(data);
@@ -27,15 +27,25 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
+import org.apache.ibatis.session.RowBounds;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.sonar.api.utils.internal.TestSystem2;
+import org.sonar.db.DbSession;
 import org.sonar.db.DbTester;
 
 import static com.google.common.collect.FluentIterable.from;
 import static com.google.common.collect.Lists.newArrayList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.sonar.db.ce.CeQueueDto.Status.IN_PROGRESS;
 import static org.sonar.db.ce.CeQueueDto.Status.PENDING;
 import static org.sonar.db.ce.CeQueueTesting.newCeQueueDto;
@@ -182,6 +192,44 @@ public class CeQueueDaoTest {
     assertThat(peek.get().getUuid()).isEqualTo(TASK_UUID_2);
   }
 
+  @Test
+  public void peek_next_candidate_when_oldest_task_is_peeked_by_another_worker() throws Exception {
+    insert(TASK_UUID_1, COMPONENT_UUID_1, PENDING);
+    system2.setNow(INIT_TIME + 1_000_000);
+    insert(TASK_UUID_2, COMPONENT_UUID_2, PENDING);
+
+    Optional<CeQueueDto> peek = underTest.peek(sessionLosingRaceOnOldestCandidate());
+
+    assertThat(peek.get().getUuid()).isEqualTo(TASK_UUID_2);
+    verifyCeQueueStatuses(TASK_UUID_1, IN_PROGRESS, TASK_UUID_2, IN_PROGRESS);
+  }
+
+  @Test
+  public void do_not_peek_next_task_of_component_when_its_oldest_task_is_peeked_by_another_worker() throws Exception {
+    insert(TASK_UUID_1, COMPONENT_UUID_1, PENDING);
+    system2.setNow(INIT_TIME + 1_000_000);
+    insert(TASK_UUID_2, COMPONENT_UUID_1, PENDING);
+    system2.setNow(INIT_TIME + 2_000_000);
+    insert(TASK_UUID_3, COMPONENT_UUID_2, PENDING);
+
+    Optional<CeQueueDto> peek = underTest.peek(sessionLosingRaceOnOldestCandidate());
+
+    assertThat(peek.get().getUuid()).isEqualTo(TASK_UUID_3);
+    verifyCeQueueStatuses(TASK_UUID_1, IN_PROGRESS, TASK_UUID_2, PENDING, TASK_UUID_3, IN_PROGRESS);
+  }
+
+  @Test
+  public void peek_nothing_when_all_candidates_are_peeked_by_another_worker() throws Exception {
+    insert(TASK_UUID_1, COMPONENT_UUID_1, PENDING);
+    system2.setNow(INIT_TIME + 1_000_000);
+    insert(TASK_UUID_2, COMPONENT_UUID_1, PENDING);
+
+    Optional<CeQueueDto> peek = underTest.peek(sessionLosingRaceOnOldestCandidate());
+
+    assertThat(peek.isPresent()).isFalse();
+    verifyCeQueueStatuses(TASK_UUID_1, IN_PROGRESS, TASK_UUID_2, PENDING);
+  }
+
   @Test
   public void select_by_query() {
     // task status not in query
@@ -309,6 +357,27 @@ public class CeQueueDaoTest {
     assertThat(underTest.countByStatus(db.getSession(), IN_PROGRESS)).isEqualTo(2);
   }
 
+  /**
+   * Simulates another worker moving the oldest eligible task to IN_PROGRESS between the selection of the
+   * candidates and the update of their status.
+   */
+  private DbSession sessionLosingRaceOnOldestCandidate() {
+    final CeQueueMapper mapper = db.getSession().getMapper(CeQueueMapper.class);
+    CeQueueMapper racingMapper = mock(CeQueueMapper.class, delegatesTo(mapper));
+    doAnswer(new Answer<List<CeQueueDto>>() {
+      @Override
+      public List<CeQueueDto> answer(InvocationOnMock invocation) throws Throwable {
+        List<CeQueueDto> candidates = mapper.selectEligibleForPeek((RowBounds) invocation.getArguments()[0]);
+        mapper.updateIfStatus(candidates.get(0).getUuid(), IN_PROGRESS, system2.now(), system2.now(), PENDING);
+        return candidates;
+      }
+    }).when(racingMapper).selectEligibleForPeek(any(RowBounds.class));
+
+    DbSession session = spy(db.getSession());
+    doReturn(racingMapper).when(session).getMapper(CeQueueMapper.class);
+    return session;
+  }
+
   private void insert(CeQueueDto dto) {
     underTest.insert(db.getSession(), dto);
     db.commit();
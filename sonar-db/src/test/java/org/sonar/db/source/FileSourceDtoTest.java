@@ -19,8 +19,10 @@
  */
 package org.sonar.db.source;
 
+import com.google.protobuf.InvalidProtocolBufferException;
 import java.util.Arrays;
 import java.util.List;
+import org.apache.commons.lang.StringUtils;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -80,6 +82,46 @@ public class FileSourceDtoTest {
     assertThat(data.getLinesCount()).isEqualTo(build.getLinesCount());
   }
 
+  @Test
+  public void decodeSourceLines_reads_only_requested_range() {
+    byte[] bytes = FileSourceDto.encodeSourceData(createLines(1000));
+
+    List<DbFileSources.Line> lines = new FileSourceDto().decodeSourceLines(bytes, 500, 3);
+    assertThat(lines).extracting("line").containsExactly(500, 501, 502);
+    assertThat(lines).extracting("source").containsExactly("line 500", "line 501", "line 502");
+
+    assertThat(new FileSourceDto().decodeSourceLines(bytes, 999, 10)).extracting("line").containsExactly(999, 1000);
+    assertThat(new FileSourceDto().decodeSourceLines(bytes, 1001, 10)).isEmpty();
+  }
+
+  @Test
+  public void decodeSourceLines_applies_size_limit_to_each_line() throws Exception {
+    byte[] bytes = FileSourceDto.encodeSourceData(createLines(1000));
+
+    List<DbFileSources.Line> lines = FileSourceDto.decodeRegularSourceLines(bytes, 998, 10, 1024);
+    assertThat(lines).extracting("line").containsExactly(998, 999, 1000);
+  }
+
+  @Test
+  public void decodeSourceLines_fails_on_line_bigger_than_size_limit() throws Exception {
+    byte[] bytes = FileSourceDto.encodeSourceData(DbFileSources.Data.newBuilder()
+      .addLines(DbFileSources.Line.newBuilder().setLine(1).setSource("a"))
+      .addLines(DbFileSources.Line.newBuilder().setLine(2).setSource(StringUtils.repeat("a", 10_000)))
+      .build());
+
+    expectedException.expect(InvalidProtocolBufferException.class);
+
+    FileSourceDto.decodeRegularSourceLines(bytes, 1, 2, 5_000);
+  }
+
+  private static DbFileSources.Data createLines(int count) {
+    DbFileSources.Data.Builder dataBuilder = DbFileSources.Data.newBuilder();
+    for (int i = 1; i <= count; i++) {
+      dataBuilder.addLinesBuilder().setLine(i).setSource("line " + i).build();
+    }
+    return dataBuilder.build();
+  }
+
   private static DbFileSources.Data createOver64MBDataStructure() {
     DbFileSources.Data.Builder dataBuilder = DbFileSources.Data.newBuilder();
     DbFileSources.Line.Builder lineBuilder = DbFileSources.Line.newBuilder();
@@ -55,7 +55,9 @@ public class BlockChunker {
   }
 
   public List<Block> chunk(String resourceId, List<Statement> statements) {
-    List<Statement> filtered = new ArrayList<>();
+    // sequences of identical statements are reduced to their first and last statements
+    Statement[] statementsArr = new Statement[statements.size()];
+    int size = 0;
     int i = 0;
     while (i < statements.size()) {
       Statement first = statements.get(i);
@@ -63,19 +65,17 @@ public class BlockChunker {
       while (j < statements.size() && statements.get(j).getValue().equals(first.getValue())) {
         j++;
       }
-      filtered.add(statements.get(i));
+      statementsArr[size++] = first;
       if (i < j - 1) {
-        filtered.add(statements.get(j - 1));
+        statementsArr[size++] = statements.get(j - 1);
       }
       i = j;
     }
-    statements = filtered;
 
-    if (statements.size() < blockSize) {
+    if (size < blockSize) {
       return Collections.emptyList();
     }
-    Statement[] statementsArr = statements.toArray(new Statement[statements.size()]);
-    List<Block> blocks = new ArrayList<>(statementsArr.length - blockSize + 1);
+    List<Block> blocks = new ArrayList<>(size - blockSize + 1);
     long hash = 0;
     int first = 0;
     int last = 0;
@@ -83,7 +83,7 @@ public class BlockChunker {
       hash = hash * PRIME_BASE + statementsArr[last].getValue().hashCode();
     }
     Block.Builder blockBuilder = Block.builder().setResourceId(resourceId);
-    for (; last < statementsArr.length; last++, first++) {
+    for (; last < size; last++, first++) {
       Statement firstStatement = statementsArr[first];
       Statement lastStatement = statementsArr[last];
       // add last statement to hash
@@ -19,8 +19,6 @@
  */
 package org.sonar.duplications.block;
 
-import java.nio.ByteBuffer;
-import java.nio.IntBuffer;
 import java.util.Arrays;
 
 /**
@@ -72,11 +70,14 @@ public final class ByteArray {
   }
 
   public ByteArray(int[] intArray) {
-    ByteBuffer bb = ByteBuffer.allocate(intArray.length * 4);
-    for (int i : intArray) {
-      bb.putInt(i);
+    this.bytes = new byte[intArray.length * 4];
+    int offset = 0;
+    for (int value : intArray) {
+      bytes[offset++] = (byte) (value >>> 24);
+      bytes[offset++] = (byte) (value >>> 16);
+      bytes[offset++] = (byte) (value >>> 8);
+      bytes[offset++] = (byte) value;
     }
-    this.bytes = bb.array();
   }
 
   public byte[] getBytes() {
@@ -86,23 +87,25 @@ public final class ByteArray {
   public int[] toIntArray() {
     // Pad the size to multiple of 4
     int size = (bytes.length / 4) + (bytes.length % 4 == 0 ? 0 : 1);
-    ByteBuffer bb = ByteBuffer.allocate(size * 4);
-    bb.put(bytes);
-    bb.rewind();
-    IntBuffer ib = bb.asIntBuffer();
+    // big-endian, as ByteBuffer, but without allocating intermediate buffers: this method is called
+    // for each block inserted in or searched from the clone index
     int[] result = new int[size];
-    ib.get(result);
+    for (int i = 0; i < bytes.length; i++) {
+      result[i >> 2] |= (bytes[i] & 0xFF) << (8 * (3 - (i & 3)));
+    }
     return result;
   }
 
   private static final String HEXES = "0123456789abcdef";
 
   public String toHexString() {
-    StringBuilder hex = new StringBuilder(2 * bytes.length);
+    char[] hex = new char[2 * bytes.length];
+    int i = 0;
     for (byte b : bytes) {
-      hex.append(HEXES.charAt((b & 0xF0) >> 4)).append(HEXES.charAt(b & 0x0F));
+      hex[i++] = HEXES.charAt((b & 0xF0) >> 4);
+      hex[i++] = HEXES.charAt(b & 0x0F);
     }
-    return hex.toString();
+    return new String(hex);
   }
 
   @Override
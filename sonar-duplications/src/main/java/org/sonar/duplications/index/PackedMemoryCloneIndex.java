@@ -24,6 +24,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
 
 import org.sonar.duplications.block.Block;
 import org.sonar.duplications.block.ByteArray;
@@ -44,6 +45,9 @@ import javax.annotation.Nullable;
  * <p>
  * Note that this implementation currently does not support deletion, however it's possible to implement.
  * </p>
+ * <p>
+ * Index is not thread-safe when blocks are inserted, but once sorted (by the first query), it can be queried concurrently.
+ * </p>
  */
 public class PackedMemoryCloneIndex extends AbstractCloneIndex {
 
@@ -70,8 +74,6 @@ public class PackedMemoryCloneIndex extends AbstractCloneIndex {
 
   private int[] resourceIdsIndex;
 
-  private final Block.Builder blockBuilder = Block.builder();
-
   public PackedMemoryCloneIndex() {
     this(8, DEFAULT_INITIAL_CAPACITY);
   }
@@ -100,23 +102,37 @@ public class PackedMemoryCloneIndex extends AbstractCloneIndex {
   public Collection<Block> getByResourceId(String resourceId) {
     ensureSorted();
 
-    // prepare resourceId for binary search
-    resourceIds[size] = resourceId;
-    resourceIdsIndex[size] = size;
-
-    int index = DataUtils.binarySearch(byResourceId);
+    int index = binarySearch(i -> FastStringComparator.INSTANCE.compare(resourceIds[resourceIdsIndex[i]], resourceId) < 0);
 
     List<Block> result = new ArrayList<>();
-    int realIndex = resourceIdsIndex[index];
-    while (index < size && FastStringComparator.INSTANCE.compare(resourceIds[realIndex], resourceId) == 0) {
-      result.add(getBlock(realIndex, resourceId));
-
+    while (index < size && FastStringComparator.INSTANCE.compare(resourceIds[resourceIdsIndex[index]], resourceId) == 0) {
+      result.add(getBlock(resourceIdsIndex[index], resourceId));
       index++;
-      realIndex = resourceIdsIndex[index];
     }
     return result;
   }
 
+  /**
+   * Same as {@link DataUtils#binarySearch(DataUtils.Sortable)}, but without writing the searched value in the
+   * index, so that sorted index can be queried concurrently.
+   *
+   * @param isLessThanSearched tells whether the element at the given position of the sorted index is lower than the searched value
+   * @return position of the first element which is not lower than the searched value
+   */
+  private int binarySearch(IntPredicate isLessThanSearched) {
+    int lower = 0;
+    int upper = size;
+    while (lower < upper) {
+      int mid = (lower + upper) >> 1;
+      if (isLessThanSearched.test(mid)) {
+        lower = mid + 1;
+      } else {
+        upper = mid;
+      }
+    }
+    return lower;
+  }
+
   private Block createBlock(int index, String resourceId, @Nullable ByteArray byteHash) {
     int offset = index * blockInts;
     ByteArray blockHash;
@@ -138,7 +154,8 @@ public class PackedMemoryCloneIndex extends AbstractCloneIndex {
     int startUnit = blockData[offset++];
     int endUnit = blockData[offset];
 
-    return blockBuilder
+    // a new builder is used, as sorted index can be queried concurrently
+    return Block.builder()
       .setResourceId(resourceId)
       .setBlockHash(blockHash)
       .setIndexInFile(indexInFile)
@@ -222,15 +239,10 @@ public class PackedMemoryCloneIndex extends AbstractCloneIndex {
     if (hash.length != hashInts) {
       throw new IllegalArgumentException("Expected " + hashInts + " ints in hash, but got " + hash.length);
     }
-    int offset = size * blockInts;
-    for (int i = 0; i < hashInts; i++) {
-      blockData[offset++] = hash[i];
-    }
-
-    int index = DataUtils.binarySearch(byBlockHash);
+    int index = binarySearch(i -> compareByHash(i, hash, 0) < 0);
 
     List<Block> result = new ArrayList<>();
-    while (index < size && !isLessByHash(size, index)) {
+    while (index < size && compareByHash(index, hash, 0) == 0) {
       // extract block (note that there is no need to extract hash)
       String resourceId = resourceIds[index];
       result.add(createBlock(index, resourceId, sequenceHash));
@@ -310,17 +322,21 @@ public class PackedMemoryCloneIndex extends AbstractCloneIndex {
   }
 
   private boolean isLessByHash(int i, int j) {
+    return compareByHash(i, blockData, j * blockInts) < 0;
+  }
+
+  /**
+   * Compares the hash of the block at position {@code i} with the hash stored in {@code hashData} from {@code offset}.
+   */
+  private int compareByHash(int i, int[] hashData, int offset) {
     int i2 = i * blockInts;
-    int j2 = j * blockInts;
-    for (int k = 0; k < hashInts; k++, i2++, j2++) {
-      if (blockData[i2] < blockData[j2]) {
-        return true;
-      }
-      if (blockData[i2] > blockData[j2]) {
-        return false;
+    for (int k = 0; k < hashInts; k++) {
+      int comparison = Integer.compare(blockData[i2 + k], hashData[offset + k]);
+      if (comparison != 0) {
+        return comparison;
       }
     }
-    return false;
+    return 0;
   }
 
   private final DataUtils.Sortable byBlockHash = new DataUtils.Sortable() {
@@ -63,4 +63,13 @@ public class ByteArrayTest {
     assertThat(byteArray.toIntArray(), is(new int[] { 0x00000000, 0x31000000 }));
   }
 
+  @Test
+  public void shouldConvertToIntArrayAndBack() {
+    int[] ints = new int[] { 0x80FF0001, -1, 0, 0x7FFFFFFF };
+    ByteArray byteArray = new ByteArray(ints);
+    assertThat(byteArray.toString(), is("80ff0001ffffffff000000007fffffff"));
+    assertThat(byteArray.toIntArray(), is(ints));
+    assertThat(new ByteArray(0x80FF00017FFFFFFFL).toIntArray(), is(new int[] { 0x80FF0001, 0x7FFFFFFF }));
+  }
+
 }
@@ -28,6 +28,11 @@ import org.sonar.duplications.index.PackedMemoryCloneIndex.ResourceBlocks;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -65,6 +70,30 @@ public class PackedMemoryCloneIndexTest {
     assertThat(index.getByResourceId("does not exist").size(), is(0));
   }
 
+  @Test
+  public void query_sorted_index_concurrently() throws Exception {
+    for (int i = 0; i < 1000; i++) {
+      index.insert(newBlock("r" + (i % 10), i % 100));
+    }
+    // sorts the index
+    assertThat(index.noResources()).isEqualTo(10);
+
+    List<Callable<Boolean>> queries = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      final long hash = i;
+      final String resourceId = "r" + (i % 10);
+      queries.add(() -> index.getBySequenceHash(new ByteArray(hash)).size() == 10 && index.getByResourceId(resourceId).size() == 100);
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (Future<Boolean> result : executor.invokeAll(queries)) {
+        assertThat(result.get()).isTrue();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   /**
    * When: query by a hash value.
    * Expected: all blocks should have same hash, which presented in the form of the same object.
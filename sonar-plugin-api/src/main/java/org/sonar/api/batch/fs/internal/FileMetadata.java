@@ -58,6 +58,7 @@ public class FileMetadata {
 
   private static final char LINE_FEED = '\n';
   private static final char CARRIAGE_RETURN = '\r';
+  private static final int READ_BUFFER_SIZE = 8192;
 
   public abstract static class CharHandler {
 
@@ -302,50 +303,62 @@ public class FileMetadata {
   }
 
   private static void read(Reader reader, CharHandler... handlers) throws IOException {
-    char c;
-    int i = reader.read();
+    // characters are read by chunks, as Reader#read() is synchronized and called for each character
+    char[] buffer = new char[READ_BUFFER_SIZE];
     boolean afterCR = false;
-    while (i != -1) {
-      c = (char) i;
+    int length = reader.read(buffer);
+    while (length != -1) {
+      for (int i = 0; i < length; i++) {
+        afterCR = read(buffer[i], afterCR, handlers);
+      }
+      length = reader.read(buffer);
+    }
+    for (CharHandler handler : handlers) {
       if (afterCR) {
-        for (CharHandler handler : handlers) {
-          if (c == CARRIAGE_RETURN) {
-            handler.newLine();
-            handler.handleAll(c);
-          } else if (c == LINE_FEED) {
-            handler.handleAll(c);
-            handler.newLine();
-          } else {
-            handler.newLine();
-            handler.handleIgnoreEoL(c);
-            handler.handleAll(c);
-          }
-        }
-        afterCR = c == CARRIAGE_RETURN;
-      } else if (c == LINE_FEED) {
-        for (CharHandler handler : handlers) {
-          handler.handleAll(c);
+        handler.newLine();
+      }
+      handler.eof();
+    }
+  }
+
+  /**
+   * @return true if the character is a carriage return, so that next character can be interpreted
+   */
+  private static boolean read(char c, boolean afterCR, CharHandler[] handlers) {
+    if (afterCR) {
+      for (CharHandler handler : handlers) {
+        if (c == CARRIAGE_RETURN) {
           handler.newLine();
-        }
-      } else if (c == CARRIAGE_RETURN) {
-        afterCR = true;
-        for (CharHandler handler : handlers) {
           handler.handleAll(c);
-        }
-      } else {
-        for (CharHandler handler : handlers) {
+        } else if (c == LINE_FEED) {
+          handler.handleAll(c);
+          handler.newLine();
+        } else {
+          handler.newLine();
           handler.handleIgnoreEoL(c);
           handler.handleAll(c);
         }
       }
-      i = reader.read();
+      return c == CARRIAGE_RETURN;
     }
-    for (CharHandler handler : handlers) {
-      if (afterCR) {
+    if (c == LINE_FEED) {
+      for (CharHandler handler : handlers) {
+        handler.handleAll(c);
         handler.newLine();
       }
-      handler.eof();
+      return false;
+    }
+    if (c == CARRIAGE_RETURN) {
+      for (CharHandler handler : handlers) {
+        handler.handleAll(c);
+      }
+      return true;
+    }
+    for (CharHandler handler : handlers) {
+      handler.handleIgnoreEoL(c);
+      handler.handleAll(c);
     }
+    return false;
   }
 
   public static class Metadata {
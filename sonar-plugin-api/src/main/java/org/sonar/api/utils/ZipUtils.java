@@ -20,6 +20,7 @@
 package org.sonar.api.utils;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -155,7 +156,8 @@ public final class ZipUtils {
     OutputStream out = null;
     ZipOutputStream zout = null;
     try {
-      out = FileUtils.openOutputStream(zip);
+      // deflater writes small chunks, so output must be buffered
+      out = new BufferedOutputStream(FileUtils.openOutputStream(zip));
       zout = new ZipOutputStream(out);
       doZipDir(dir, zout);
 
@@ -25,6 +25,7 @@ import java.nio.charset.StandardCharsets;
 import javax.annotation.Nullable;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -74,6 +75,20 @@ public class FileMetadataTest {
     assertThat(metadata.lastValidOffset).isEqualTo(13);
   }
 
+  @Test
+  public void windows_eol_split_over_read_buffers() throws Exception {
+    File tempFile = temp.newFile();
+    String firstLine = StringUtils.repeat("a", 8191);
+    FileUtils.write(tempFile, firstLine + "\r\nbar", StandardCharsets.UTF_8, true);
+
+    FileMetadata.Metadata metadata = new FileMetadata().readMetadata(tempFile, StandardCharsets.UTF_8);
+    assertThat(metadata.lines).isEqualTo(2);
+    assertThat(metadata.nonBlankLines).isEqualTo(2);
+    assertThat(metadata.hash).isEqualTo(md5Hex(firstLine + "\nbar"));
+    assertThat(metadata.originalLineOffsets).containsOnly(0, 8193);
+    assertThat(metadata.lastValidOffset).isEqualTo(8196);
+  }
+
   @Test
   public void read_with_wrong_encoding() throws Exception {
     File tempFile = temp.newFile();
@@ -28,7 +28,9 @@ import org.junit.rules.TemporaryFolder;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
+import java.util.Random;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -59,6 +61,24 @@ public class ZipUtilsTest {
     assertThat(new File(unzipDir, "dir1/hello.properties")).exists().isFile();
   }
 
+  @Test
+  public void unzip_restores_zipped_directory() throws IOException {
+    File dir = temp.newFolder();
+    // random bytes can't be compressed, so zip output is larger than the write buffers
+    byte[] binary = new byte[1_000_000];
+    new Random(42L).nextBytes(binary);
+    FileUtils.writeByteArrayToFile(new File(dir, "binary.dat"), binary);
+    FileUtils.write(new File(dir, "sub/dir/text.txt"), "some text", StandardCharsets.UTF_8);
+    File zip = new File(temp.newFolder(), "archive.zip");
+
+    ZipUtils.zipDir(dir, zip);
+    File toDir = temp.newFolder();
+    ZipUtils.unzip(zip, toDir);
+
+    assertThat(FileUtils.readFileToByteArray(new File(toDir, "binary.dat"))).isEqualTo(binary);
+    assertThat(FileUtils.readFileToString(new File(toDir, "sub/dir/text.txt"), StandardCharsets.UTF_8)).isEqualTo("some text");
+  }
+
   @Test
   public void shouldUnzipFile() throws IOException {
     File zip = FileUtils.toFile(getClass().getResource("/org/sonar/api/utils/ZipUtilsTest/shouldUnzipFile.zip"));
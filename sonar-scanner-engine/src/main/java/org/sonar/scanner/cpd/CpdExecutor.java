@@ -22,10 +22,13 @@ package org.sonar.scanner.cpd;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import javax.annotation.CheckForNull;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.config.Settings;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
+import org.sonar.core.config.CorePropertyDefinitions;
 import org.sonar.duplications.block.Block;
 import org.sonar.duplications.detector.suffixtree.SuffixTreeCloneDetectionAlgorithm;
 import org.sonar.duplications.index.CloneGroup;
@@ -39,10 +42,13 @@ import org.sonar.scanner.protocol.output.ScannerReport.Duplicate;
 import org.sonar.scanner.protocol.output.ScannerReport.Duplication;
 import org.sonar.scanner.report.ReportPublisher;
 import org.sonar.scanner.util.ProgressReport;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -55,10 +61,12 @@ import static com.google.common.collect.FluentIterable.from;
  * Runs on the root module, at the end of the project analysis.
  * It executes copy paste detection involving all files of all modules, which were indexed during sensors execution for each module
  * by {@link CpdSensor). The sensor is responsible for handling exclusions and block sizes.
+ * Files are processed concurrently against the index, which is not modified anymore, but duplications
+ * are written to the report in the order of the index.
  */
 public class CpdExecutor {
   private static final Logger LOG = Loggers.get(CpdExecutor.class);
-  // timeout for the computation of duplicates in a file (seconds)
+  // timeout for the computation of duplicates in a file, counted from the start of its computation (seconds)
   private static final int TIMEOUT = 5 * 60;
   static final int MAX_CLONE_GROUP_PER_FILE = 100;
   static final int MAX_CLONE_PART_PER_GROUP = 100;
@@ -67,8 +75,8 @@ public class CpdExecutor {
   private final ReportPublisher publisher;
   private final BatchComponentCache batchComponentCache;
   private final Settings settings;
-  private final ExecutorService executorService;
   private final ProgressReport progressReport;
+  private long timeoutInNanos = TimeUnit.SECONDS.toNanos(TIMEOUT);
   private int count;
   private int total;
 
@@ -77,50 +85,87 @@ public class CpdExecutor {
     this.index = index;
     this.publisher = publisher;
     this.batchComponentCache = batchComponentCache;
-    this.executorService = Executors.newSingleThreadExecutor();
     this.progressReport = new ProgressReport("CPD computation", TimeUnit.SECONDS.toMillis(10));
   }
 
   public void execute() {
+    // sorts the index before it is read concurrently
     total = index.noResources();
+    int threads = getThreads();
     progressReport.start(String.format("Calculating CPD for %d files", total));
+    ExecutorService executorService = Executors.newFixedThreadPool(threads,
+      new ThreadFactoryBuilder().setNameFormat("cpd-%d").setDaemon(true).build());
     try {
       Iterator<ResourceBlocks> it = index.iterator();
+      // bounds the number of files whose blocks are loaded in memory
+      Deque<CpdTask> pendingTasks = new ArrayDeque<>();
 
       while (it.hasNext()) {
         ResourceBlocks resourceBlocks = it.next();
-        runCpdAnalysis(resourceBlocks.resourceId(), resourceBlocks.blocks());
+        CpdTask task = submitCpdAnalysis(executorService, resourceBlocks.resourceId(), resourceBlocks.blocks());
+        if (task != null) {
+          pendingTasks.add(task);
+        }
+        if (pendingTasks.size() >= 2 * threads) {
+          saveCpdAnalysis(pendingTasks.poll());
+        }
         count++;
       }
+      while (!pendingTasks.isEmpty()) {
+        saveCpdAnalysis(pendingTasks.poll());
+      }
       progressReport.stop("CPD calculation finished");
     } catch (Exception e) {
       progressReport.stop("");
       throw e;
+    } finally {
+      executorService.shutdownNow();
     }
   }
 
-  private void runCpdAnalysis(String resource, final Collection<Block> fileBlocks) {
-    LOG.debug("Detection of duplications for {}", resource);
+  @VisibleForTesting
+  CpdExecutor setTimeout(long timeout, TimeUnit unit) {
+    this.timeoutInNanos = unit.toNanos(timeout);
+    return this;
+  }
 
+  @VisibleForTesting
+  int getThreads() {
+    int threads = settings.getInt(CorePropertyDefinitions.CPD_THREADS);
+    if (threads <= 0) {
+      threads = Runtime.getRuntime().availableProcessors();
+    }
+    return threads;
+  }
+
+  @CheckForNull
+  private CpdTask submitCpdAnalysis(ExecutorService executorService, String resource, Collection<Block> fileBlocks) {
     BatchComponent component = batchComponentCache.get(resource);
     if (component == null) {
       LOG.error("Resource not found in component cache: {}. Skipping CPD computation for it", resource);
-      return;
+      return null;
     }
 
+    CpdTask task = new CpdTask(component, fileBlocks, count);
+    task.futureResult = executorService.submit(task);
+    return task;
+  }
+
+  @VisibleForTesting
+  List<CloneGroup> detect(Collection<Block> fileBlocks) {
+    return SuffixTreeCloneDetectionAlgorithm.detect(index, fileBlocks);
+  }
+
+  private void saveCpdAnalysis(CpdTask task) {
+    BatchComponent component = task.component;
     InputFile inputFile = (InputFile) component.inputComponent();
-    progressReport.message(String.format("%d/%d - current file: %s", count, total, inputFile.absolutePath()));
 
     List<CloneGroup> duplications;
-    Future<List<CloneGroup>> futureResult = null;
     try {
-      futureResult = executorService.submit(() -> SuffixTreeCloneDetectionAlgorithm.detect(index, fileBlocks));
-      duplications = futureResult.get(TIMEOUT, TimeUnit.SECONDS);
+      duplications = waitForResult(task);
     } catch (TimeoutException e) {
       LOG.warn("Timeout during detection of duplications for " + inputFile.absolutePath());
-      if (futureResult != null) {
-        futureResult.cancel(true);
-      }
+      task.futureResult.cancel(true);
       return;
     } catch (Exception e) {
       throw new IllegalStateException("Fail during detection of duplication for " + inputFile.absolutePath(), e);
@@ -137,6 +182,48 @@ public class CpdExecutor {
     saveDuplications(component, filtered);
   }
 
+  /**
+   * Tasks may still be queued behind other files when their result is requested, so the timeout is
+   * counted from the start of the computation of the file rather than from the start of waiting.
+   */
+  private List<CloneGroup> waitForResult(CpdTask task) throws InterruptedException, ExecutionException, TimeoutException {
+    while (true) {
+      Long startedAt = task.startedAt;
+      long waitInNanos = startedAt == null ? timeoutInNanos : (startedAt + timeoutInNanos - System.nanoTime());
+      try {
+        return task.futureResult.get(Math.max(0L, waitInNanos), TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        if (startedAt != null) {
+          throw e;
+        }
+        // computation had not started yet, wait again until its own deadline
+      }
+    }
+  }
+
+  private class CpdTask implements Callable<List<CloneGroup>> {
+    private final BatchComponent component;
+    private final Collection<Block> fileBlocks;
+    private final int fileNumber;
+    private volatile Long startedAt = null;
+    private Future<List<CloneGroup>> futureResult;
+
+    CpdTask(BatchComponent component, Collection<Block> fileBlocks, int fileNumber) {
+      this.component = component;
+      this.fileBlocks = fileBlocks;
+      this.fileNumber = fileNumber;
+    }
+
+    @Override
+    public List<CloneGroup> call() {
+      startedAt = System.nanoTime();
+      InputFile inputFile = (InputFile) component.inputComponent();
+      LOG.debug("Detection of duplications for {}", component.key());
+      progressReport.message(String.format("%d/%d - current file: %s", fileNumber, total, inputFile.absolutePath()));
+      return detect(fileBlocks);
+    }
+  }
+
   @VisibleForTesting
   /**
    * Not applicable to Java, as the {@link BlockChunker} that it uses does not record start and end units of each block. 
@@ -38,6 +38,12 @@ import static org.sonar.core.util.FileUtils.deleteQuietly;
  */
 @ScannerSide
 public class CachesManager implements Startable {
+  private static final int PAGE_SIZE = 8192;
+  // buffer pool is bounded to 2% of the heap, between 10 and 2560 pages (80Kb to 20Mb)
+  private static final int MIN_BUFFERS = 10;
+  private static final int MAX_BUFFERS = 2560;
+  private static final int HEAP_RATIO_FOR_BUFFERS = 50;
+
   private File tempDir;
   private Persistit persistit;
   private final TempFolder tempFolder;
@@ -56,7 +62,7 @@ public class CachesManager implements Startable {
       props.setProperty("datapath", tempDir.getAbsolutePath());
       props.setProperty("logpath", "${datapath}/log");
       props.setProperty("logfile", "${logpath}/persistit_${timestamp}.log");
-      props.setProperty("buffer.count.8192", "10");
+      props.setProperty("buffer.count." + PAGE_SIZE, String.valueOf(bufferCount(Runtime.getRuntime().maxMemory())));
       props.setProperty("journalpath", "${datapath}/journal");
       props.setProperty("tmpvoldir", "${datapath}");
       props.setProperty("volume.1", "${datapath}/persistit,create,pageSize:8192,initialPages:10,extensionPages:100,maximumPages:25000");
@@ -88,6 +94,15 @@ public class CachesManager implements Startable {
     tempDir = null;
   }
 
+  /**
+   * Pages of the temporary volumes are kept in this pool. When it's full, pages are written
+   * to disk, so a pool that is too small makes most cache operations go to disk.
+   */
+  static int bufferCount(long maxHeapBytes) {
+    long count = maxHeapBytes / HEAP_RATIO_FOR_BUFFERS / PAGE_SIZE;
+    return (int) Math.max(MIN_BUFFERS, Math.min(MAX_BUFFERS, count));
+  }
+
   File tempDir() {
     return tempDir;
   }
@@ -19,42 +19,117 @@
  */
 package org.sonar.scanner.phases;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 import org.sonar.api.batch.ScannerSide;
 import org.sonar.api.batch.Sensor;
 import org.sonar.api.batch.SensorContext;
+import org.sonar.api.config.Settings;
 import org.sonar.api.resources.Project;
 import org.sonar.scanner.bootstrap.BatchExtensionDictionnary;
 import org.sonar.scanner.events.EventBus;
-import java.util.Collection;
+import org.sonar.scanner.sensor.SensorWrapper;
 
 @ScannerSide
 public class SensorsExecutor {
 
+  /**
+   * Internal and not part of the plugin API. Comma-separated class names of the sensors known to be thread-safe. Consecutive
+   * sensors of this list are executed concurrently. Sensors are executed sequentially when the property is not set.
+   */
+  @VisibleForTesting
+  static final String CONCURRENT_SENSORS_PROP_KEY = "sonar.scanner.internal.concurrentSensors";
+
   private EventBus eventBus;
   private Project module;
   private BatchExtensionDictionnary selector;
+  private final Set<String> concurrentSensors;
 
-  public SensorsExecutor(BatchExtensionDictionnary selector, Project project, EventBus eventBus) {
+  public SensorsExecutor(BatchExtensionDictionnary selector, Project project, EventBus eventBus, Settings settings) {
     this.selector = selector;
     this.eventBus = eventBus;
     this.module = project;
+    this.concurrentSensors = Arrays.stream(settings.getStringArray(CONCURRENT_SENSORS_PROP_KEY)).collect(Collectors.toSet());
   }
 
   public void execute(SensorContext context) {
     Collection<Sensor> sensors = selector.select(Sensor.class, module, true, null);
     eventBus.fireEvent(new SensorsPhaseEvent(Lists.newArrayList(sensors), true));
 
+    List<Sensor> concurrentBatch = new ArrayList<>();
     for (Sensor sensor : sensors) {
-      executeSensor(context, sensor);
+      if (isConcurrent(sensor)) {
+        concurrentBatch.add(sensor);
+      } else {
+        executeConcurrently(context, concurrentBatch);
+        concurrentBatch.clear();
+        executeSensor(context, sensor);
+      }
     }
+    executeConcurrently(context, concurrentBatch);
 
     eventBus.fireEvent(new SensorsPhaseEvent(Lists.newArrayList(sensors), false));
   }
 
+  private boolean isConcurrent(Sensor sensor) {
+    Object executed = sensor instanceof SensorWrapper ? ((SensorWrapper) sensor).wrappedSensor() : sensor;
+    return concurrentSensors.contains(executed.getClass().getName());
+  }
+
+  private void executeConcurrently(SensorContext context, List<Sensor> sensors) {
+    if (sensors.size() <= 1) {
+      sensors.forEach(sensor -> executeSensor(context, sensor));
+      return;
+    }
+    // a few sensors at most, often waiting on I/O: one thread each
+    ExecutorService executorService = Executors.newFixedThreadPool(sensors.size(),
+      new ThreadFactoryBuilder().setNameFormat("sensor-%d").setDaemon(true).build());
+    try {
+      List<Future<?>> futures = new ArrayList<>(sensors.size());
+      for (Sensor sensor : sensors) {
+        futures.add(executorService.submit(() -> executeSensor(context, sensor)));
+      }
+      for (Future<?> future : futures) {
+        waitFor(future);
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private static void waitFor(Future<?> future) {
+    try {
+      future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while executing sensors", e);
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
   private void executeSensor(SensorContext context, Sensor sensor) {
-    eventBus.fireEvent(new SensorExecutionEvent(sensor, true));
+    fireEvent(new SensorExecutionEvent(sensor, true));
     sensor.analyse(module, context);
-    eventBus.fireEvent(new SensorExecutionEvent(sensor, false));
+    fireEvent(new SensorExecutionEvent(sensor, false));
+  }
+
+  /**
+   * Handlers are not thread-safe, so events of concurrent sensors are delivered one at a time.
+   */
+  private synchronized void fireEvent(SensorExecutionEvent event) {
+    eventBus.fireEvent(event);
   }
 }
@@ -31,6 +31,8 @@ import org.sonar.api.batch.fs.internal.DefaultInputDir;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.api.scan.filesystem.PathResolver;
 import org.sonar.api.utils.MessageException;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.api.utils.log.Profiler;
 import org.sonar.scanner.util.ProgressReport;
 import java.io.File;
 import java.io.IOException;
@@ -53,6 +55,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Index input files into {@link InputPathCache}.
@@ -88,6 +91,7 @@ public class FileIndexer {
     exclusionFilters.prepare();
 
     Progress progress = new Progress();
+    Profiler profiler = Profiler.createIfDebug(Loggers.get(FileIndexer.class)).start();
 
     InputFileBuilder inputFileBuilder = inputFileBuilderFactory.create(fileSystem);
     int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
@@ -99,6 +103,9 @@ public class FileIndexer {
     waitForTasksToComplete();
 
     progressReport.stop(progress.count() + " files indexed");
+    if (progress.count() > 0) {
+      profiler.addContext("files", progress.count()).addContext("bytes", progress.indexedBytes()).stopDebug("Files indexed");
+    }
 
     if (exclusionFilters.hasPattern()) {
       LOG.info(progress.excludedByPatternsCount() + " files ignored because of inclusion/exclusion patterns");
@@ -240,8 +247,15 @@ public class FileIndexer {
   private class Progress {
     private final Set<Path> indexed = new HashSet<>();
     private int excludedByPatternsCount = 0;
+    private final AtomicLong indexedBytes = new AtomicLong(0L);
+
+    void markAsIndexed(InputFile inputFile) {
+      markPathAsIndexed(inputFile);
+      // file system call, done out of the lock
+      indexedBytes.addAndGet(inputFile.file().length());
+    }
 
-    synchronized void markAsIndexed(InputFile inputFile) {
+    private synchronized void markPathAsIndexed(InputFile inputFile) {
       if (indexed.contains(inputFile.path())) {
         throw MessageException.of("File " + inputFile + " can't be indexed twice. Please check that inclusion/exclusion patterns produce "
           + "disjoint sets for main and test files");
@@ -258,9 +272,13 @@ public class FileIndexer {
       return excludedByPatternsCount;
     }
 
-    int count() {
+    synchronized int count() {
       return indexed.size();
     }
+
+    long indexedBytes() {
+      return indexedBytes.get();
+    }
   }
 
 }
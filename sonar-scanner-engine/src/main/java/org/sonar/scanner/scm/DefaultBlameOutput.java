@@ -22,11 +22,12 @@ package org.sonar.scanner.scm;
 import com.google.common.base.Preconditions;
 import java.text.Normalizer;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import javax.annotation.Nullable;
 import org.apache.commons.lang.StringUtils;
@@ -35,6 +36,7 @@ import org.sonar.api.batch.scm.BlameCommand.BlameOutput;
 import org.sonar.api.batch.scm.BlameLine;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
+import org.sonar.api.utils.log.Profiler;
 import org.sonar.scanner.index.BatchComponent;
 import org.sonar.scanner.index.BatchComponentCache;
 import org.sonar.scanner.protocol.output.ScannerReport;
@@ -42,6 +44,10 @@ import org.sonar.scanner.protocol.output.ScannerReport.Changesets.Builder;
 import org.sonar.scanner.util.ProgressReport;
 import org.sonar.scanner.protocol.output.ScannerReportWriter;
 
+/**
+ * Results can be reported concurrently by providers that blame several files in parallel. Conversion
+ * and writing of changesets are not synchronized, as each file is written to its own report file.
+ */
 class DefaultBlameOutput implements BlameOutput {
 
   private static final Logger LOG = Loggers.get(DefaultBlameOutput.class);
@@ -51,30 +57,47 @@ class DefaultBlameOutput implements BlameOutput {
 
   private final ScannerReportWriter writer;
   private final BatchComponentCache componentCache;
-  private final Set<InputFile> allFilesToBlame = new HashSet<>();
+  private final Set<InputFile> allFilesToBlame = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger count = new AtomicInteger(0);
+  private final Profiler profiler;
   private ProgressReport progressReport;
-  private int count;
   private int total;
 
   DefaultBlameOutput(ScannerReportWriter writer, BatchComponentCache componentCache, List<InputFile> filesToBlame) {
     this.writer = writer;
     this.componentCache = componentCache;
     this.allFilesToBlame.addAll(filesToBlame);
-    count = 0;
     total = filesToBlame.size();
+    profiler = Profiler.create(LOG).start();
     progressReport = new ProgressReport("Report about progress of SCM blame", TimeUnit.SECONDS.toMillis(10));
     progressReport.start(total + " files to be analyzed");
   }
 
   @Override
-  public synchronized void blameResult(InputFile file, List<BlameLine> lines) {
+  public void blameResult(InputFile file, List<BlameLine> lines) {
     Preconditions.checkNotNull(file);
     Preconditions.checkNotNull(lines);
-    Preconditions.checkArgument(allFilesToBlame.contains(file), "It was not expected to blame file %s", file.relativePath());
+    // the file is claimed atomically, so that concurrent results for the same file can't both be written
+    Preconditions.checkArgument(allFilesToBlame.remove(file), "It was not expected to blame file %s", file.relativePath());
+
+    boolean written = false;
+    try {
+      written = writeChangesets(file, lines);
+    } finally {
+      if (!written) {
+        // blame of the file is still missing
+        allFilesToBlame.add(file);
+      }
+    }
+    if (written) {
+      progressReport.message(count.incrementAndGet() + "/" + total + " files analyzed");
+    }
+  }
 
+  private boolean writeChangesets(InputFile file, List<BlameLine> lines) {
     if (lines.size() != file.lines()) {
       LOG.debug("Ignoring blame result since provider returned {} blame lines but file {} has {} lines", lines.size(), file.relativePath(), file.lines());
-      return;
+      return false;
     }
 
     BatchComponent batchComponent = componentCache.get(file);
@@ -95,9 +118,7 @@ class DefaultBlameOutput implements BlameOutput {
       lineId++;
     }
     writer.writeComponentChangesets(scmBuilder.build());
-    allFilesToBlame.remove(file);
-    count++;
-    progressReport.message(count + "/" + total + " files analyzed");
+    return true;
   }
 
   private static void validateLine(BlameLine line, int lineId, InputFile file) {
@@ -135,7 +156,8 @@ class DefaultBlameOutput implements BlameOutput {
   }
 
   public void finish(boolean success) {
-    progressReport.stop(count + "/" + total + " files analyzed");
+    progressReport.stop(count.get() + "/" + total + " files analyzed");
+    logStatistics();
     if (success && !allFilesToBlame.isEmpty()) {
       LOG.warn("Missing blame information for the following files:");
       for (InputFile f : allFilesToBlame) {
@@ -144,4 +166,12 @@ class DefaultBlameOutput implements BlameOutput {
       LOG.warn("This may lead to missing/broken features in SonarQube");
     }
   }
+
+  private void logStatistics() {
+    int blamedFiles = count.get();
+    if (blamedFiles > 0) {
+      // overall time, files may be blamed in parallel by the provider
+      profiler.addContext("files", blamedFiles).stopInfo("SCM blame done");
+    }
+  }
 }
@@ -21,14 +21,19 @@ package org.sonar.scanner.cpd;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.mockito.InOrder;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.api.batch.fs.internal.DefaultInputModule;
 import org.sonar.api.config.Settings;
@@ -36,8 +41,11 @@ import org.sonar.api.resources.Project;
 import org.sonar.api.utils.log.LogTester;
 import org.sonar.api.utils.log.LoggerLevel;
 import org.sonar.core.util.CloseableIterator;
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.block.ByteArray;
 import org.sonar.duplications.index.CloneGroup;
 import org.sonar.duplications.index.ClonePart;
+import org.sonar.duplications.index.PackedMemoryCloneIndex.ResourceBlocks;
 import org.sonar.scanner.protocol.output.ScannerReport.Duplicate;
 import org.sonar.scanner.protocol.output.ScannerReport.Duplication;
 import org.sonar.scanner.report.ReportPublisher;
@@ -48,8 +56,13 @@ import org.sonar.scanner.index.BatchComponentCache;
 import org.sonar.scanner.protocol.output.ScannerReportReader;
 import org.sonar.scanner.protocol.output.ScannerReportWriter;
 
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
 public class CpdExecutorTest {
@@ -71,10 +84,12 @@ public class CpdExecutorTest {
   private BatchComponent batchComponent1;
   private BatchComponent batchComponent2;
   private BatchComponent batchComponent3;
+  private Path baseDir;
 
   @Before
   public void setUp() throws IOException {
     File outputDir = temp.newFolder();
+    baseDir = temp.newFolder().toPath();
 
     settings = new Settings();
     index = mock(SonarCpdBlockIndex.class);
@@ -94,7 +109,7 @@ public class CpdExecutorTest {
 
   private BatchComponent createComponent(String relativePath, int lines) {
     org.sonar.api.resources.Resource sampleFile = org.sonar.api.resources.File.create("relativePath").setEffectiveKey("foo:" + relativePath);
-    return componentCache.add(sampleFile, null).setInputComponent(new DefaultInputFile("foo", relativePath).setLines(lines));
+    return componentCache.add(sampleFile, null).setInputComponent(new DefaultInputFile("foo", relativePath).setModuleBaseDir(baseDir).setLines(lines));
   }
 
   @Test
@@ -102,6 +117,17 @@ public class CpdExecutorTest {
     assertThat(executor.getMinimumTokens("java")).isEqualTo(100);
   }
 
+  @Test
+  public void defaultThreads() {
+    assertThat(executor.getThreads()).isEqualTo(Runtime.getRuntime().availableProcessors());
+  }
+
+  @Test
+  public void threadsBySettings() {
+    settings.setProperty("sonar.cpd.threads", "3");
+    assertThat(executor.getThreads()).isEqualTo(3);
+  }
+
   @Test
   public void minimumTokensByLanguage() {
     settings.setProperty("sonar.cpd.java.minimumTokens", "42");
@@ -113,6 +139,64 @@ public class CpdExecutorTest {
     assertThat(executor.getMinimumTokens("php")).isEqualTo(33);
   }
 
+  @Test
+  public void save_duplications_in_index_order_when_files_are_processed_concurrently() {
+    settings.setProperty("sonar.cpd.threads", "3");
+    ScannerReportWriter writer = spy(publisher.getWriter());
+    when(publisher.getWriter()).thenReturn(writer);
+    indexFiles(batchComponent1, batchComponent2, batchComponent3);
+    executor = new CpdExecutor(settings, index, publisher, componentCache) {
+      @Override
+      List<CloneGroup> detect(Collection<Block> fileBlocks) {
+        String resourceId = fileBlocks.iterator().next().getResourceId();
+        if (resourceId.equals(batchComponent1.key())) {
+          // first file of the index is the last one to be computed
+          sleep(500L);
+        }
+        return singletonList(newSameFileCloneGroup(resourceId));
+      }
+    };
+
+    executor.execute();
+
+    InOrder inOrder = inOrder(writer);
+    inOrder.verify(writer).writeComponentDuplications(eq(batchComponent1.batchId()), any(Iterable.class));
+    inOrder.verify(writer).writeComponentDuplications(eq(batchComponent2.batchId()), any(Iterable.class));
+    inOrder.verify(writer).writeComponentDuplications(eq(batchComponent3.batchId()), any(Iterable.class));
+    assertThat(reader.readComponentDuplications(batchComponent1.batchId())).hasSize(1);
+    assertThat(reader.readComponentDuplications(batchComponent2.batchId())).hasSize(1);
+    assertThat(reader.readComponentDuplications(batchComponent3.batchId())).hasSize(1);
+  }
+
+  @Test
+  public void timeout_is_counted_from_the_start_of_computation_of_each_file() {
+    settings.setProperty("sonar.cpd.threads", "2");
+    indexFiles(batchComponent1, batchComponent2, batchComponent3);
+    executor = new CpdExecutor(settings, index, publisher, componentCache) {
+      @Override
+      List<CloneGroup> detect(Collection<Block> fileBlocks) {
+        String resourceId = fileBlocks.iterator().next().getResourceId();
+        if (!resourceId.equals(batchComponent3.key())) {
+          // interrupted when abandoned
+          sleep(60_000L);
+        }
+        return singletonList(newSameFileCloneGroup(resourceId));
+      }
+    }.setTimeout(1, TimeUnit.SECONDS);
+
+    long start = System.currentTimeMillis();
+    executor.execute();
+
+    // both slow files started at once and are abandoned after one timeout, not one after the other
+    assertThat(System.currentTimeMillis() - start).isLessThan(1_800L);
+    assertThat(logTester.logs(LoggerLevel.WARN)).containsOnly(
+      "Timeout during detection of duplications for " + ((InputFile) batchComponent1.inputComponent()).absolutePath(),
+      "Timeout during detection of duplications for " + ((InputFile) batchComponent2.inputComponent()).absolutePath());
+    assertThat(reader.readComponentDuplications(batchComponent1.batchId())).isEmpty();
+    assertThat(reader.readComponentDuplications(batchComponent2.batchId())).isEmpty();
+    assertThat(reader.readComponentDuplications(batchComponent3.batchId())).hasSize(1);
+  }
+
   @Test
   public void testNothingToSave() {
     executor.saveDuplications(batchComponent1, Collections.<CloneGroup>emptyList());
@@ -234,6 +318,40 @@ public class CpdExecutorTest {
     assertThat(d.getDuplicate(0).getRange().getEndLine()).isEqualTo(rangeEndLine);
   }
 
+  private void indexFiles(BatchComponent... components) {
+    List<ResourceBlocks> resourceBlocks = new ArrayList<>();
+    for (BatchComponent component : components) {
+      Block block = Block.builder()
+        .setResourceId(component.key())
+        .setBlockHash(new ByteArray("a1b2"))
+        .setIndexInFile(0)
+        .setLines(1, 2)
+        .setUnit(0, 10)
+        .build();
+      resourceBlocks.add(new ResourceBlocks(component.key(), singletonList(block)));
+    }
+    when(index.noResources()).thenReturn(components.length);
+    when(index.iterator()).thenReturn(resourceBlocks.iterator());
+  }
+
+  private static CloneGroup newSameFileCloneGroup(String resourceId) {
+    ClonePart origin = new ClonePart(resourceId, 0, 1, 2);
+    return CloneGroup.builder()
+      .setLength(1)
+      .setLengthInUnits(100)
+      .setOrigin(origin)
+      .setParts(Arrays.asList(origin, new ClonePart(resourceId, 5, 11, 12)))
+      .build();
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   private CloneGroup newCloneGroup(ClonePart... parts) {
     return CloneGroup.builder().setLength(0).setOrigin(parts[0]).setParts(Arrays.asList(parts)).build();
   }
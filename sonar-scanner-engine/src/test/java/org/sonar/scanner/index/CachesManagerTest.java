@@ -39,4 +39,11 @@ public class CachesManagerTest extends AbstractCachesTest {
     assertThat(cachesManager.tempDir()).isNull();
     assertThat(cachesManager.persistit()).isNull();
   }
+
+  @Test
+  public void size_buffer_pool_according_to_heap() {
+    assertThat(CachesManager.bufferCount(1024L * 1024L)).isEqualTo(10);
+    assertThat(CachesManager.bufferCount(512L * 1024L * 1024L)).isEqualTo(1310);
+    assertThat(CachesManager.bufferCount(8L * 1024L * 1024L * 1024L)).isEqualTo(2560);
+  }
 }
@@ -0,0 +1,128 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2016 SonarSource SA
+ * mailto:contact AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.scanner.phases;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.sonar.api.batch.Sensor;
+import org.sonar.api.batch.SensorContext;
+import org.sonar.api.config.Settings;
+import org.sonar.api.resources.Project;
+import org.sonar.scanner.bootstrap.BatchExtensionDictionnary;
+import org.sonar.scanner.events.EventBus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SensorsExecutorTest {
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  Project project = new Project("project");
+  BatchExtensionDictionnary selector = mock(BatchExtensionDictionnary.class);
+  SensorContext context = mock(SensorContext.class);
+  Settings settings = new Settings();
+
+  CountDownLatch latch = new CountDownLatch(2);
+  LatchSensor sensor1 = new LatchSensor(latch);
+  LatchSensor sensor2 = new LatchSensor(latch);
+
+  @Before
+  public void setUp() {
+    when(selector.select(Sensor.class, project, true, null)).thenReturn(Arrays.<Sensor>asList(sensor1, sensor2));
+  }
+
+  @Test
+  public void execute_sensors_sequentially_by_default() {
+    sensor1.timeoutMs = 10;
+
+    newExecutor().execute(context);
+
+    assertThat(sensor1.thread).isSameAs(Thread.currentThread());
+    assertThat(sensor2.thread).isSameAs(Thread.currentThread());
+    assertThat(sensor1.awaited).isFalse();
+  }
+
+  @Test
+  public void execute_thread_safe_sensors_concurrently() {
+    settings.setProperty(SensorsExecutor.CONCURRENT_SENSORS_PROP_KEY, LatchSensor.class.getName());
+
+    newExecutor().execute(context);
+
+    assertThat(sensor1.awaited).isTrue();
+    assertThat(sensor2.awaited).isTrue();
+    assertThat(sensor1.thread).isNotSameAs(Thread.currentThread());
+    assertThat(sensor2.thread).isNotSameAs(sensor1.thread);
+  }
+
+  @Test
+  public void fail_if_a_concurrent_sensor_fails() {
+    settings.setProperty(SensorsExecutor.CONCURRENT_SENSORS_PROP_KEY, LatchSensor.class.getName());
+    sensor2.failure = new IllegalStateException("Sensor failure");
+
+    thrown.expect(IllegalStateException.class);
+    thrown.expectMessage("Sensor failure");
+
+    newExecutor().execute(context);
+  }
+
+  private SensorsExecutor newExecutor() {
+    return new SensorsExecutor(selector, project, mock(EventBus.class), settings);
+  }
+
+  private static class LatchSensor implements Sensor {
+    private final CountDownLatch latch;
+    private Thread thread;
+    private boolean awaited;
+    private RuntimeException failure;
+    private long timeoutMs = 10_000;
+
+    LatchSensor(CountDownLatch latch) {
+      this.latch = latch;
+    }
+
+    @Override
+    public boolean shouldExecuteOnProject(Project project) {
+      return true;
+    }
+
+    @Override
+    public void analyse(Project module, SensorContext context) {
+      thread = Thread.currentThread();
+      latch.countDown();
+      if (failure != null) {
+        throw failure;
+      }
+      try {
+        // only returns true if the other sensor runs at the same time
+        awaited = latch.await(timeoutMs, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -51,6 +51,8 @@ public class SourcePublisherTest {
 
   private org.sonar.api.resources.File sampleFile;
 
+  private DefaultInputFile inputFile;
+
   @Before
   public void prepare() throws IOException {
     Project p = new Project("foo").setAnalysisDate(new Date(1234567L));
@@ -60,8 +62,8 @@ public class SourcePublisherTest {
     resourceCache.add(p, null).setInputComponent(new DefaultInputModule("foo"));
     File baseDir = temp.newFolder();
     sourceFile = new File(baseDir, "src/Foo.php");
-    resourceCache.add(sampleFile, null).setInputComponent(
-      new DefaultInputFile("foo", "src/Foo.php").setLines(5).setModuleBaseDir(baseDir.toPath()).setCharset(StandardCharsets.ISO_8859_1));
+    inputFile = new DefaultInputFile("foo", "src/Foo.php").setLines(5).setModuleBaseDir(baseDir.toPath()).setCharset(StandardCharsets.ISO_8859_1);
+    resourceCache.add(sampleFile, null).setInputComponent(inputFile);
     publisher = new SourcePublisher(resourceCache);
     File outputDir = temp.newFolder();
     writer = new ScannerReportWriter(outputDir);
@@ -108,6 +110,25 @@ public class SourcePublisherTest {
     assertThat(FileUtils.readFileToString(out, StandardCharsets.UTF_8)).isEqualTo("1\n2\n3\n4\n5");
   }
 
+  @Test
+  public void publishSourceLargerThanWriteBuffer() throws Exception {
+    StringBuilder source = new StringBuilder();
+    int lines = 5_000;
+    for (int i = 1; i <= lines; i++) {
+      source.append("ligne \u00e9crite ").append(i);
+      if (i < lines) {
+        source.append('\n');
+      }
+    }
+    FileUtils.write(sourceFile, source, StandardCharsets.ISO_8859_1);
+    inputFile.setLines(lines);
+
+    publisher.publish(writer);
+
+    File out = writer.getSourceFile(2);
+    assertThat(FileUtils.readFileToString(out, StandardCharsets.UTF_8)).isEqualTo(source.toString());
+  }
+
   @Test
   public void cleanLineEnds() throws Exception {
     FileUtils.write(sourceFile, "\n2\r\n3\n4\r5", StandardCharsets.ISO_8859_1);
@@ -19,20 +19,32 @@
  */
 package org.sonar.scanner.scm;
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import org.sonar.api.batch.fs.InputComponent;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.api.batch.scm.BlameLine;
+import org.sonar.api.utils.log.LogTester;
+import org.sonar.api.utils.log.LoggerLevel;
 import org.sonar.scanner.index.BatchComponent;
 import org.sonar.scanner.index.BatchComponentCache;
+import org.sonar.scanner.protocol.output.ScannerReportReader;
+import org.sonar.scanner.protocol.output.ScannerReportWriter;
 import org.sonar.scanner.scm.DefaultBlameOutput;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -42,6 +54,12 @@ public class DefaultBlameOutputTest {
   @Rule
   public ExpectedException thrown = ExpectedException.none();
 
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Rule
+  public LogTester logTester = new LogTester();
+
   private BatchComponentCache componentCache;
 
   @Before
@@ -92,4 +110,58 @@ public class DefaultBlameOutputTest {
       .blameResult(file, Arrays.asList(new BlameLine().date(new Date()).author("guy")));
   }
 
+  @Test
+  public void shouldFailIfFileAlreadyBlamed() throws Exception {
+    InputFile file = new DefaultInputFile("foo", "src/main/java/Foo.java").setLines(1);
+    DefaultBlameOutput output = new DefaultBlameOutput(new ScannerReportWriter(temp.newFolder()), componentCache, Arrays.<InputFile>asList(file));
+    output.blameResult(file, Arrays.asList(new BlameLine().revision("1").date(new Date()).author("guy")));
+
+    thrown.expect(IllegalArgumentException.class);
+    thrown.expectMessage("It was not expected to blame file src/main/java/Foo.java");
+
+    output.blameResult(file, Arrays.asList(new BlameLine().revision("2").date(new Date()).author("guy")));
+  }
+
+  @Test
+  public void file_with_ignored_blame_result_is_still_missing() {
+    InputFile file = new DefaultInputFile("foo", "src/main/java/Foo.java").setLines(10);
+    DefaultBlameOutput output = new DefaultBlameOutput(null, null, Arrays.asList(file));
+
+    output.blameResult(file, Arrays.asList(new BlameLine().revision("1").author("guy")));
+    output.finish(true);
+
+    assertThat(logTester.logs(LoggerLevel.WARN)).contains("Missing blame information for the following files:");
+  }
+
+  @Test
+  public void accept_results_reported_concurrently() throws Exception {
+    File reportDir = temp.newFolder();
+    ScannerReportWriter writer = new ScannerReportWriter(reportDir);
+    BatchComponentCache cache = mock(BatchComponentCache.class);
+    final List<InputFile> files = new ArrayList<>();
+    for (int i = 1; i <= 100; i++) {
+      InputFile file = new DefaultInputFile("foo", "src/main/java/Foo" + i + ".java").setLines(1);
+      BatchComponent component = mock(BatchComponent.class);
+      when(component.batchId()).thenReturn(i);
+      when(cache.get(file)).thenReturn(component);
+      files.add(file);
+    }
+    final DefaultBlameOutput output = new DefaultBlameOutput(writer, cache, files);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    for (final InputFile file : files) {
+      executor.submit(() -> output.blameResult(file, Arrays.asList(new BlameLine().revision("1").date(new Date()).author("guy"))));
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+    output.finish(true);
+
+    ScannerReportReader reader = new ScannerReportReader(reportDir);
+    for (int i = 1; i <= 100; i++) {
+      assertThat(reader.readChangesets(i).getChangesetIndexByLineCount()).isEqualTo(1);
+    }
+    assertThat(logTester.logs(LoggerLevel.WARN)).isEmpty();
+    assertThat(logTester.logs(LoggerLevel.INFO).stream().anyMatch(log -> log.startsWith("SCM blame done | time=") && log.endsWith("| files=100"))).isTrue();
+  }
+
 }